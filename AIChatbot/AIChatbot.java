@@ -26,12 +26,50 @@ public class AIChatbot {
         private RuleMatcher rules;
         private Preprocessor preproc;
 
+        // Above this many intents, classification goes through the inverted index (top-k) instead of scoring every intent
+        private int indexedSearchThreshold = 1000;
+        private int topK = 5;
+        // Spelling correction for out-of-vocabulary words, rebuilt from the vocabulary on every train
+        private int maxEditDistance = 2;
+        private int spellPrefixLength = 7;
+
         public ChatBotEngine() {
             preproc = new Preprocessor();
             nb = new NaiveBayesClassifier(preproc);
             rules = new RuleMatcher(preproc);
         }
 
+        public void setIndexedSearchThreshold(int intentCount) {
+            this.indexedSearchThreshold = intentCount;
+        }
+
+        public void setTopK(int k) {
+            this.topK = Math.max(2, k);
+        }
+
+        // 0 disables correction; takes effect on the next train
+        public void setMaxEditDistance(int distance) {
+            this.maxEditDistance = Math.max(0, distance);
+        }
+
+        // Train with an external intent list (e.g. a large FAQ export)
+        public void train(List<Intent> intents) {
+            preproc.setSpellingCorrector(null); // training text is the vocabulary; never correct it
+            nb.train(intents);
+            buildSpellingCorrector();
+        }
+
+        // Dictionary = training words (weighted by frequency) plus rule keywords
+        private void buildSpellingCorrector() {
+            if (maxEditDistance == 0) {
+                preproc.setSpellingCorrector(null);
+                return;
+            }
+            Map<String, Integer> words = new HashMap<>(nb.wordCounts());
+            for (String w : rules.keywordWords()) words.merge(w, 1, Integer::sum);
+            preproc.setSpellingCorrector(new SpellingCorrector(words, maxEditDistance, spellPrefixLength));
+        }
+
         // Load an embedded default training dataset (intents, example utterances, responses).
         public void trainDefaultDataset() {
             // Each intent: id, examples, responses
@@ -78,12 +116,15 @@ public class AIChatbot {
                     Arrays.asList("Of course — tell me what you need help with.", "Sure — what's the issue you're facing?")));
 
             // Train Naive Bayes classifier
+            preproc.setSpellingCorrector(null);
             nb.train(intents);
 
             // Add rule-based keywords (helpful for exact matching / fallback)
             rules.addRule("order", Arrays.asList("order", "buy", "purchase"), "If you'd like to order, visit our store or tell me what you'd like to buy.");
             rules.addRule("refund", Arrays.asList("refund", "return", "money back"), "To request a refund, please fill the refund form on our site or email refunds@example.com.");
             rules.addRule("security", Arrays.asList("secure", "security", "data protection", "privacy"), "We take data privacy seriously. See our privacy policy at example.com/privacy.");
+
+            buildSpellingCorrector();
         }
 
         // Get response for input text
@@ -98,7 +139,9 @@ public class AIChatbot {
             if (ruleResp != null) return ruleResp;
 
             // 2) Use Naive Bayes classifier
-            ClassificationResult res = nb.classify(normalized);
+            ClassificationResult res = nb.intentCount() > indexedSearchThreshold
+                    ? nb.classifyTopK(normalized, topK)
+                    : nb.classify(normalized);
             if (res != null && res.bestIntent != null) {
                 // Confidence threshold — if low, use fallback
                 if (res.confidence >= 0.35) {
@@ -147,11 +190,16 @@ public class AIChatbot {
 
     // ---------------------------
     // Simple Preprocessor
-    // - lowercase, punctuation removal, tokenization, stopword removal, naive stemming
+    // - lowercase, punctuation removal, tokenization, stopword removal, spelling correction, naive stemming
     // ---------------------------
     static class Preprocessor {
         private Set<String> stopwords;
         private Pattern punctuation = Pattern.compile("[^a-z0-9\\s]");
+        private SpellingCorrector speller; // null until a vocabulary has been trained
+
+        public void setSpellingCorrector(SpellingCorrector speller) {
+            this.speller = speller;
+        }
 
         public Preprocessor() {
             stopwords = new HashSet<>(Arrays.asList(
@@ -177,12 +225,22 @@ public class AIChatbot {
                 p = p.trim();
                 if (p.isEmpty()) continue;
                 if (stopwords.contains(p)) continue;
+                if (speller != null) p = speller.correct(p);
                 String s = simpleStem(p);
                 if (!s.isEmpty()) out.add(s);
             }
             return out;
         }
 
+        // Surface words before correction and stemming (stopwords removed); the spelling dictionary is built from these
+        public List<String> words(String normalized) {
+            List<String> out = new ArrayList<>();
+            for (String p : normalized.split("\\s+")) {
+                if (!p.isEmpty() && !stopwords.contains(p)) out.add(p);
+            }
+            return out;
+        }
+
         // Very light-weight stemmer: remove common suffixes
         private String simpleStem(String tok) {
             if (tok.length() <= 3) return tok;
@@ -203,6 +261,167 @@ public class AIChatbot {
         }
     }
 
+    // ---------------------------
+    // SymSpell-style spelling correction
+    // - symmetric-delete index: every dictionary word's prefix and its deletes (up to maxEditDistance)
+    //   map to the word, so a lookup only generates deletes of the input instead of scanning the vocabulary
+    // - prefixes are capped at prefixLength chars, bounding the index at C(prefixLength, <=d) entries per word
+    // - candidates are verified with a bounded Damerau-Levenshtein (OSA) distance, allowed to grow with word length;
+    //   a tie only goes to the more frequent word when it is clearly more frequent
+    // ---------------------------
+    static class SpellingCorrector {
+        // a correction tied on distance must be this many times as frequent as the runner-up
+        private static final int CLEAR_MARGIN = 2;
+
+        private final int maxDistance;
+        private final int prefixLength;
+        private final String[] words;
+        private final int[] frequency;
+        private final Map<String, Integer> known = new HashMap<>();
+        private final Map<String, int[]> deletes = new HashMap<>();
+
+        public SpellingCorrector(Map<String, Integer> wordCounts, int maxDistance, int prefixLength) {
+            this.maxDistance = maxDistance;
+            this.prefixLength = Math.max(maxDistance + 1, prefixLength);
+            this.words = wordCounts.keySet().toArray(new String[0]);
+            this.frequency = new int[words.length];
+            // posting arrays grow in place while building: slot 0 holds the used length
+            Set<String> scratch = new HashSet<>();
+            for (int id = 0; id < words.length; id++) {
+                frequency[id] = wordCounts.get(words[id]);
+                known.put(words[id], id);
+                scratch.clear();
+                addDeletes(prefix(words[id]), maxDistance, scratch);
+                for (String d : scratch) {
+                    int[] ids = deletes.get(d);
+                    if (ids == null) {
+                        ids = new int[]{0, 0};
+                    } else if (ids[0] + 1 == ids.length) {
+                        ids = Arrays.copyOf(ids, ids.length * 2);
+                    } else {
+                        ids[++ids[0]] = id;
+                        continue;
+                    }
+                    ids[++ids[0]] = id;
+                    deletes.put(d, ids);
+                }
+            }
+            for (Map.Entry<String, int[]> e : deletes.entrySet()) {
+                int[] ids = e.getValue();
+                e.setValue(Arrays.copyOfRange(ids, 1, ids[0] + 1));
+            }
+        }
+
+        public boolean isKnown(String word) {
+            return known.containsKey(word);
+        }
+
+        // Closest dictionary word within the distance allowed for the word's length, or the input
+        // unchanged when there is none or the closest one is not clearly better than the next
+        public String correct(String word) {
+            int maxDistance = Math.min(this.maxDistance, allowedDistance(word.length()));
+            if (maxDistance == 0 || known.containsKey(word) || isNumber(word)) return word;
+            String input = prefix(word);
+            int best = -1;
+            int bestDistance = maxDistance + 1;
+            int runnerUp = 0; // highest frequency among other words at bestDistance
+            Set<Integer> checked = new HashSet<>();
+            Set<String> seen = new HashSet<>();
+            List<String> level = Collections.singletonList(input);
+            // breadth-first over deletes of the input; a candidate with k deletes can't beat distance k
+            for (int k = 0; k <= maxDistance && !level.isEmpty() && k <= bestDistance; k++) {
+                List<String> next = new ArrayList<>();
+                for (String candidate : level) {
+                    int[] ids = deletes.get(candidate);
+                    if (ids != null) {
+                        for (int id : ids) {
+                            if (!checked.add(id)) continue;
+                            int d = distance(word, words[id], Math.min(maxDistance, bestDistance));
+                            if (d < bestDistance) {
+                                best = id;
+                                bestDistance = d;
+                                runnerUp = 0;
+                            } else if (d == bestDistance && best >= 0) {
+                                if (frequency[id] > frequency[best]) {
+                                    runnerUp = frequency[best];
+                                    best = id;
+                                } else {
+                                    runnerUp = Math.max(runnerUp, frequency[id]);
+                                }
+                            }
+                        }
+                    }
+                    if (k < maxDistance && candidate.length() > 1) {
+                        for (int i = 0; i < candidate.length(); i++) {
+                            String del = candidate.substring(0, i) + candidate.substring(i + 1);
+                            if (seen.add(del)) next.add(del);
+                        }
+                    }
+                }
+                level = next;
+            }
+            if (best < 0 || (long) frequency[best] < (long) CLEAR_MARGIN * runnerUp) return word;
+            return words[best];
+        }
+
+        // Short words sit within an edit or two of many others ("tell"/"help", "food"/"good"),
+        // so they are left alone and longer words get more room
+        static int allowedDistance(int length) {
+            return length <= 4 ? 0 : length <= 7 ? 1 : 2;
+        }
+
+        public int size() {
+            return words.length;
+        }
+
+        private String prefix(String w) {
+            return w.length() > prefixLength ? w.substring(0, prefixLength) : w;
+        }
+
+        // w and every string reachable from it by up to `remaining` single-char deletes
+        private static void addDeletes(String w, int remaining, Set<String> out) {
+            out.add(w);
+            if (remaining == 0 || w.length() <= 1) return;
+            for (int i = 0; i < w.length(); i++) {
+                addDeletes(w.substring(0, i) + w.substring(i + 1), remaining - 1, out);
+            }
+        }
+
+        // Optimal string alignment distance, or max + 1 once it must exceed max
+        private static int distance(String a, String b, int max) {
+            if (Math.abs(a.length() - b.length()) > max) return max + 1;
+            int n = a.length(), m = b.length();
+            int[] prev2 = new int[m + 1];
+            int[] prev = new int[m + 1];
+            int[] cur = new int[m + 1];
+            for (int j = 0; j <= m; j++) prev[j] = j;
+            for (int i = 1; i <= n; i++) {
+                cur[0] = i;
+                int rowMin = cur[0];
+                for (int j = 1; j <= m; j++) {
+                    int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                    int v = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+                    if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                        v = Math.min(v, prev2[j - 2] + 1);
+                    }
+                    cur[j] = v;
+                    rowMin = Math.min(rowMin, v);
+                }
+                if (rowMin > max) return max + 1;
+                int[] t = prev2;
+                prev2 = prev;
+                prev = cur;
+                cur = t;
+            }
+            return Math.min(prev[m], max + 1);
+        }
+
+        private static boolean isNumber(String w) {
+            for (int i = 0; i < w.length(); i++) if (!Character.isDigit(w.charAt(i))) return false;
+            return true;
+        }
+    }
+
     // ---------------------------
     // Naive Bayes classifier (multinomial) implemented from scratch
     // ---------------------------
@@ -215,8 +434,10 @@ public class AIChatbot {
         private Map<String, Integer> docCountsByIntent;                 // intent -> number of training examples
         private int totalDocs;
         private Set<String> vocabulary;
+        private Map<String, Integer> wordCounts;           // surface word -> count, feeds the spelling corrector
 
         private Map<String, List<String>> intentResponses; // intent -> responses
+        private InvertedIntentIndex index;                 // token -> intents posting lists, rebuilt on train
 
         public NaiveBayesClassifier(Preprocessor preproc) {
             this.preproc = preproc;
@@ -224,6 +445,7 @@ public class AIChatbot {
             totalTokensByIntent = new HashMap<>();
             docCountsByIntent = new HashMap<>();
             vocabulary = new HashSet<>();
+            wordCounts = new HashMap<>();
             intentResponses = new HashMap<>();
             totalDocs = 0;
         }
@@ -235,6 +457,7 @@ public class AIChatbot {
             totalTokensByIntent.clear();
             docCountsByIntent.clear();
             vocabulary.clear();
+            wordCounts.clear();
             intentResponses.clear();
             totalDocs = 0;
 
@@ -245,6 +468,7 @@ public class AIChatbot {
                     totalDocs++;
                     docCount++;
                     String norm = preproc.normalize(ex);
+                    for (String w : preproc.words(norm)) wordCounts.merge(w, 1, Integer::sum);
                     List<String> toks = preproc.tokenize(norm);
                     for (String t : toks) {
                         vocabulary.add(t);
@@ -256,6 +480,49 @@ public class AIChatbot {
                 docCountsByIntent.put(intent.id, docCount);
                 intentResponses.put(intent.id, intent.responses);
             }
+
+            index = new InvertedIntentIndex(tokenCountsByIntent, totalTokensByIntent, docCountsByIntent,
+                    totalDocs, Math.max(1, vocabulary.size()));
+        }
+
+        public int intentCount() {
+            return tokenCountsByIntent.size();
+        }
+
+        public Map<String, Integer> wordCounts() {
+            return Collections.unmodifiableMap(wordCounts);
+        }
+
+        // Top-k intents that share at least one token with the input, scored through the inverted index
+        public List<ScoredIntent> topK(String normalizedText, int k) {
+            return topK(preproc.tokenize(normalizedText), k);
+        }
+
+        private List<ScoredIntent> topK(List<String> toks, int k) {
+            if (index == null || toks.isEmpty()) return Collections.emptyList();
+            return index.topK(toks, k);
+        }
+
+        // Same contract as classify(), but only intents sharing a token with the input are scored
+        public ClassificationResult classifyTopK(String normalizedText, int k) {
+            List<String> toks = preproc.tokenize(normalizedText);
+            List<ScoredIntent> top = topK(toks, Math.max(2, k));
+            if (top.isEmpty()) return null;
+
+            double bestScore = top.get(0).score;
+            // intents outside the candidate set are only bounded from above by the best no-overlap score;
+            // a bound at or above the best candidate means no margin at all
+            double secondBest = index.noOverlapUpperBound(toks.size());
+            if (top.size() > 1) secondBest = Math.max(secondBest, top.get(1).score);
+
+            double confidence = 1.0 - Math.exp(-Math.max(0, bestScore - secondBest));
+            if (confidence < 0) confidence = 0;
+            if (confidence > 1) confidence = 1;
+
+            String bestIntent = top.get(0).intent;
+            ClassificationResult res = new ClassificationResult(bestIntent, confidence, pickResponseForIntent(bestIntent));
+            res.candidates = top;
+            return res;
         }
 
         // Classify input, return best intent + confidence and a response
@@ -328,6 +595,164 @@ public class AIChatbot {
         }
     }
 
+    // ---------------------------
+    // Inverted index over the trained Naive Bayes model
+    // - posting list per token: intent ids (ascending) + precomputed log(count + 1) weights
+    // - MaxScore document-at-a-time traversal, so only intents sharing tokens with the query are scored
+    // ---------------------------
+    static class InvertedIntentIndex {
+        private final String[] intentNames;
+        private final double[] logPrior;        // per intent id
+        private final double[] logDenominator;  // per intent id: log(totalTokens + |V|)
+        private final Map<String, Integer> tokenIds = new HashMap<>();
+        private final int[][] postingIntents;
+        private final double[][] postingWeights;
+        private final double[] maxWeight;       // per token id: upper bound of any weight in its list
+        private double maxLogPrior = Double.NEGATIVE_INFINITY;
+        private double minLogDenominator = Double.POSITIVE_INFINITY;
+
+        InvertedIntentIndex(Map<String, Map<String, Integer>> tokenCountsByIntent,
+                            Map<String, Integer> totalTokensByIntent,
+                            Map<String, Integer> docCountsByIntent,
+                            int totalDocs, int vocabularySize) {
+            int n = tokenCountsByIntent.size();
+            intentNames = new String[n];
+            logPrior = new double[n];
+            logDenominator = new double[n];
+
+            // assign ids: intents in sorted order so posting lists come out ascending
+            List<String> names = new ArrayList<>(tokenCountsByIntent.keySet());
+            Collections.sort(names);
+            Map<String, List<int[]>> postings = new HashMap<>(); // token -> [intentId, count]
+            for (int id = 0; id < n; id++) {
+                String intent = names.get(id);
+                intentNames[id] = intent;
+                logPrior[id] = Math.log((double) docCountsByIntent.getOrDefault(intent, 0) + 1) - Math.log(totalDocs + n);
+                logDenominator[id] = Math.log(totalTokensByIntent.getOrDefault(intent, 0) + (double) vocabularySize);
+                maxLogPrior = Math.max(maxLogPrior, logPrior[id]);
+                minLogDenominator = Math.min(minLogDenominator, logDenominator[id]);
+                for (Map.Entry<String, Integer> e : tokenCountsByIntent.get(intent).entrySet()) {
+                    postings.computeIfAbsent(e.getKey(), k -> new ArrayList<>()).add(new int[]{id, e.getValue()});
+                }
+            }
+
+            postingIntents = new int[postings.size()][];
+            postingWeights = new double[postings.size()][];
+            maxWeight = new double[postings.size()];
+            int tokenId = 0;
+            for (Map.Entry<String, List<int[]>> e : postings.entrySet()) {
+                List<int[]> list = e.getValue();
+                int[] ids = new int[list.size()];
+                double[] ws = new double[list.size()];
+                double max = 0;
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = list.get(i)[0];
+                    ws[i] = Math.log(list.get(i)[1] + 1.0);
+                    max = Math.max(max, ws[i]);
+                }
+                tokenIds.put(e.getKey(), tokenId);
+                postingIntents[tokenId] = ids;
+                postingWeights[tokenId] = ws;
+                maxWeight[tokenId] = max;
+                tokenId++;
+            }
+        }
+
+        // Best possible score of an intent that shares no token with a query of the given length
+        double noOverlapUpperBound(int queryLength) {
+            return maxLogPrior - queryLength * minLogDenominator;
+        }
+
+        // Multinomial NB score factorizes as: logPrior - n*log(T + |V|) + sum over matched tokens of qtf*log(count + 1),
+        // so the intent-independent part is a per-intent base and matched tokens add posting weights.
+        List<ScoredIntent> topK(List<String> toks, int k) {
+            Map<Integer, Integer> qtf = new HashMap<>();
+            for (String t : toks) {
+                Integer id = tokenIds.get(t);
+                if (id != null) qtf.merge(id, 1, Integer::sum);
+            }
+            if (qtf.isEmpty() || k <= 0) return Collections.emptyList();
+
+            // terms sorted by upper bound ascending; low-impact terms become "non-essential" first
+            int m = qtf.size();
+            int[] terms = new int[m];
+            double[] ub = new double[m];
+            int[] tf = new int[m];
+            Integer[] order = qtf.keySet().toArray(new Integer[0]);
+            Arrays.sort(order, Comparator.comparingDouble(id -> qtf.get(id) * maxWeight[id]));
+            for (int i = 0; i < m; i++) {
+                terms[i] = order[i];
+                tf[i] = qtf.get(order[i]);
+                ub[i] = tf[i] * maxWeight[terms[i]];
+            }
+            double[] cumUb = new double[m];
+            for (int i = 0; i < m; i++) cumUb[i] = ub[i] + (i > 0 ? cumUb[i - 1] : 0);
+
+            int queryLength = toks.size();
+            double baseUpper = noOverlapUpperBound(queryLength);
+            int[] pos = new int[m];
+            PriorityQueue<ScoredIntent> heap = new PriorityQueue<>(Comparator.comparingDouble((ScoredIntent s) -> s.score));
+            double threshold = Double.NEGATIVE_INFINITY;
+            int firstEssential = 0;
+
+            while (true) {
+                // next candidate: smallest current intent id across essential lists
+                int doc = Integer.MAX_VALUE;
+                for (int i = firstEssential; i < m; i++) {
+                    int[] list = postingIntents[terms[i]];
+                    if (pos[i] < list.length && list[pos[i]] < doc) doc = list[pos[i]];
+                }
+                if (doc == Integer.MAX_VALUE) break;
+
+                double score = logPrior[doc] - queryLength * logDenominator[doc];
+                for (int i = firstEssential; i < m; i++) {
+                    int[] list = postingIntents[terms[i]];
+                    if (pos[i] < list.length && list[pos[i]] == doc) {
+                        score += tf[i] * postingWeights[terms[i]][pos[i]];
+                        pos[i]++;
+                    }
+                }
+                // non-essential lists: probe only while the candidate can still enter the top-k
+                for (int i = firstEssential - 1; i >= 0; i--) {
+                    if (score + cumUb[i] <= threshold) break;
+                    int[] list = postingIntents[terms[i]];
+                    int found = Arrays.binarySearch(list, pos[i], list.length, doc);
+                    if (found >= 0) {
+                        score += tf[i] * postingWeights[terms[i]][found];
+                        pos[i] = found + 1;
+                    } else {
+                        pos[i] = -found - 1;
+                    }
+                }
+
+                if (heap.size() < k) {
+                    heap.add(new ScoredIntent(intentNames[doc], score));
+                } else if (score > threshold) {
+                    heap.poll();
+                    heap.add(new ScoredIntent(intentNames[doc], score));
+                }
+                if (heap.size() == k) {
+                    threshold = heap.peek().score;
+                    while (firstEssential < m && baseUpper + cumUb[firstEssential] <= threshold) firstEssential++;
+                }
+            }
+
+            List<ScoredIntent> out = new ArrayList<>(heap);
+            out.sort(Comparator.comparingDouble((ScoredIntent s) -> s.score).reversed());
+            return out;
+        }
+    }
+
+    static class ScoredIntent {
+        String intent;
+        double score;
+
+        public ScoredIntent(String intent, double score) {
+            this.intent = intent;
+            this.score = score;
+        }
+    }
+
     // ---------------------------
     // Classification result wrapper
     // ---------------------------
@@ -335,6 +760,7 @@ public class AIChatbot {
         String bestIntent;
         double confidence;
         String bestResponse;
+        List<ScoredIntent> candidates = Collections.emptyList(); // filled by the top-k path
 
         public ClassificationResult(String bestIntent, double confidence, String bestResponse) {
             this.bestIntent = bestIntent;
@@ -364,6 +790,17 @@ public class AIChatbot {
             rulesResponse.put(id, response);
         }
 
+        // individual words of every keyword phrase, for the spelling dictionary
+        public List<String> keywordWords() {
+            List<String> out = new ArrayList<>();
+            for (List<String> kws : rulesKeywords.values()) {
+                for (String kw : kws) {
+                    for (String w : kw.split(" ")) if (!w.isEmpty()) out.add(w);
+                }
+            }
+            return out;
+        }
+
         // return response if any rule matched, else null
         public String match(String normalized) {
             List<String> toks = preproc.tokenize(normalized);
@@ -0,0 +1,63 @@
+import java.util.*;
+
+// Regression check for spelling correction against the default dataset: valid short words
+// must reach the classifier untouched and common typos must still be fixed.
+// Run: java SpellingRegressionCheck   (exit status 1 on any failure)
+public class SpellingRegressionCheck {
+    private static int failures = 0;
+
+    public static void main(String[] args) {
+        AIChatbot.ChatBotEngine engine = new AIChatbot.ChatBotEngine();
+        engine.trainDefaultDataset();
+        AIChatbot.ChatBotEngine plain = new AIChatbot.ChatBotEngine();
+        plain.setMaxEditDistance(0);
+        plain.trainDefaultDataset();
+        String fallback = plain.getResponse("zzzz qqqq");
+
+        // answered the same with or without correction: nothing in them is a typo
+        for (String q : Arrays.asList("tell me a joke", "I love food", "wait a second", "tell me the weather")) {
+            expect(q, engine.getResponse(q), plain.getResponse(q));
+        }
+        // typos of dataset words must no longer fall through to the fallback
+        for (String q : Arrays.asList("pricng", "how to instal", "suport emial", "opning hours", "refnud please")) {
+            String r = engine.getResponse(q);
+            if (r.equals(fallback)) fail(q, "fell back: " + r);
+        }
+
+        Map<String, Integer> words = new HashMap<>();
+        for (String w : Arrays.asList("help", "good", "what", "pricing", "install", "support", "opening")) words.put(w, 5);
+        words.put("suppose", 5);
+        words.put("supporter", 1);
+        words.put("beach", 5);
+        words.put("bench", 5);
+        words.put("pouch", 12);
+        words.put("porch", 5);
+        AIChatbot.SpellingCorrector speller = new AIChatbot.SpellingCorrector(words, 2, 7);
+        expect("tell", speller.correct("tell"), "tell");
+        expect("food", speller.correct("food"), "food");
+        expect("wait", speller.correct("wait"), "wait");
+        expect("pricng", speller.correct("pricng"), "pricing");
+        expect("instal", speller.correct("instal"), "install");
+        expect("opning", speller.correct("opning"), "opening");
+        expect("supporte", speller.correct("supporte"), "support"); // also 1 edit from "supporter", which is rarer
+        expect("suppoxe", speller.correct("suppoxe"), "suppose");
+        expect("suppqae", speller.correct("suppqae"), "suppqae"); // 7 chars: 2 edits not allowed
+        expect("beuch", speller.correct("beuch"), "beuch");       // beach or bench: ambiguous
+        expect("poxch", speller.correct("poxch"), "pouch");       // pouch clearly more frequent than porch
+
+        if (failures > 0) {
+            System.out.println(failures + " spelling regression(s)");
+            System.exit(1);
+        }
+        System.out.println("spelling regression check passed");
+    }
+
+    private static void expect(String input, String actual, String expected) {
+        if (!actual.equals(expected)) fail(input, "expected \"" + expected + "\" but got \"" + actual + "\"");
+    }
+
+    private static void fail(String input, String message) {
+        failures++;
+        System.out.println("FAIL " + input + ": " + message);
+    }
+}
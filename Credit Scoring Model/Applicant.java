@@ -0,0 +1,45 @@
+// One credit applicant: an id and a fixed vector of numeric features.
+// CSV layout: id,income,debt_to_income,history_years,late_payments,utilization,open_accounts[,default]
+class Applicant {
+    static final String[] FEATURES = {
+            "income", "debt_to_income", "history_years", "late_payments", "utilization", "open_accounts"
+    };
+
+    private final String id;
+    private final double[] features;
+    private final int label; // 1 = defaulted, 0 = repaid, -1 = unknown
+
+    public Applicant(String id, double[] features, int label) {
+        this.id = id;
+        this.features = features;
+        this.label = label;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public double[] getFeatures() {
+        return features;
+    }
+
+    public int getLabel() {
+        return label;
+    }
+
+    // Returns null for header or malformed lines. Unlabeled parsing also accepts (and ignores) a label
+    // column; anything wider is malformed, e.g. numbers written with a decimal comma.
+    public static Applicant parse(String line, boolean labeled) {
+        String[] cols = line.split(",");
+        int expected = 1 + FEATURES.length + (labeled ? 1 : 0);
+        if (cols.length < expected || cols.length > FEATURES.length + 2) return null;
+        double[] x = new double[FEATURES.length];
+        try {
+            for (int i = 0; i < x.length; i++) x[i] = Double.parseDouble(cols[i + 1].trim());
+            int label = labeled ? Integer.parseInt(cols[FEATURES.length + 1].trim()) : -1;
+            return new Applicant(cols[0].trim(), x, label);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
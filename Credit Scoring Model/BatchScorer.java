@@ -0,0 +1,120 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+// Streams an applicant CSV through a fork-join pool and writes
+// id,score,probability_of_default,reasons rows in input order.
+// The reader keeps at most a fixed number of batches in flight, so memory stays
+// constant however large the input file is.
+class BatchScorer {
+    private static final int BATCH_LINES = 8192;
+    private static final int LEAF_LINES = 512;
+    private static final int MAX_REASONS = 3;
+
+    private final CreditModel model;
+    private final ForkJoinPool pool;
+    private final int maxInFlight;
+
+    public BatchScorer(CreditModel model, int parallelism) {
+        this.model = model;
+        this.pool = new ForkJoinPool(parallelism);
+        this.maxInFlight = parallelism * 2;
+    }
+
+    // Returns the number of applicants scored; malformed lines are skipped.
+    public long score(Path in, Path out) throws IOException {
+        long scored = 0;
+        ArrayDeque<ForkJoinTask<ScoredBatch>> inFlight = new ArrayDeque<>();
+        try (BufferedReader reader = Files.newBufferedReader(in, StandardCharsets.UTF_8);
+             BufferedWriter writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            writer.write("id,score,probability_of_default,reasons");
+            writer.newLine();
+            String[] batch = new String[BATCH_LINES];
+            int n = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                batch[n++] = line;
+                if (n == BATCH_LINES) {
+                    if (inFlight.size() == maxInFlight) scored += drain(inFlight.poll(), writer);
+                    inFlight.add(pool.submit(new ScoreTask(batch, 0, n)));
+                    batch = new String[BATCH_LINES];
+                    n = 0;
+                }
+            }
+            if (n > 0) inFlight.add(pool.submit(new ScoreTask(batch, 0, n)));
+            while (!inFlight.isEmpty()) scored += drain(inFlight.poll(), writer);
+        }
+        return scored;
+    }
+
+    private static int drain(ForkJoinTask<ScoredBatch> task, BufferedWriter writer) throws IOException {
+        ScoredBatch result = task.join();
+        writer.append(result.text);
+        return result.count;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static class ScoredBatch {
+        final StringBuilder text;
+        final int count;
+
+        ScoredBatch(StringBuilder text, int count) {
+            this.text = text;
+            this.count = count;
+        }
+    }
+
+    private class ScoreTask extends RecursiveTask<ScoredBatch> {
+        private final String[] lines;
+        private final int from;
+        private final int to;
+
+        ScoreTask(String[] lines, int from, int to) {
+            this.lines = lines;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ScoredBatch compute() {
+            if (to - from > LEAF_LINES) {
+                int mid = (from + to) >>> 1;
+                ScoreTask left = new ScoreTask(lines, from, mid);
+                left.fork();
+                ScoredBatch right = new ScoreTask(lines, mid, to).compute();
+                ScoredBatch l = left.join();
+                return new ScoredBatch(l.text.append(right.text), l.count + right.count);
+            }
+            StringBuilder sb = new StringBuilder((to - from) * 48);
+            int[] reasons = new int[MAX_REASONS];
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                Applicant a = Applicant.parse(lines[i], false);
+                if (a == null) continue;
+                double[] x = a.getFeatures();
+                sb.append(a.getId()).append(',')
+                        .append(model.score(x)).append(',')
+                        .append(String.format(Locale.ROOT, "%.4f", model.probabilityOfDefault(x))).append(',');
+                int k = model.reasons(x, reasons);
+                for (int r = 0; r < k; r++) {
+                    if (r > 0) sb.append(';');
+                    sb.append(Applicant.FEATURES[reasons[r]]);
+                }
+                sb.append(System.lineSeparator());
+                count++;
+            }
+            return new ScoredBatch(sb, count);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Logistic regression on standardized features, predicting probability of default.
+// Scores use the usual points-to-double-odds scaling: 600 points at 50:1 good odds,
+// +20 points each time the odds double. Reason codes are the features pushing the
+// applicant's default risk up the most relative to the training population.
+class CreditModel {
+    private static final int MAGIC = 0x43524544; // "CRED"
+    private static final double FACTOR = 20 / Math.log(2);
+    private static final double OFFSET = 600 - FACTOR * Math.log(50);
+
+    private final double[] mean;
+    private final double[] std;
+    private final double[] weights;
+    private double bias;
+
+    private CreditModel(int n) {
+        mean = new double[n];
+        std = new double[n];
+        weights = new double[n];
+    }
+
+    // Full-batch gradient descent with L2; the gradient sum is split across cores.
+    public static CreditModel train(List<Applicant> data, int iterations, double learningRate, double l2) {
+        if (data.isEmpty()) throw new IllegalArgumentException("No training data");
+        int n = Applicant.FEATURES.length;
+        int m = data.size();
+        CreditModel model = new CreditModel(n);
+
+        for (Applicant a : data) {
+            double[] x = a.getFeatures();
+            for (int j = 0; j < n; j++) model.mean[j] += x[j];
+        }
+        for (int j = 0; j < n; j++) model.mean[j] /= m;
+        for (Applicant a : data) {
+            double[] x = a.getFeatures();
+            for (int j = 0; j < n; j++) {
+                double d = x[j] - model.mean[j];
+                model.std[j] += d * d;
+            }
+        }
+        for (int j = 0; j < n; j++) {
+            model.std[j] = Math.sqrt(model.std[j] / m);
+            if (model.std[j] == 0) model.std[j] = 1;
+        }
+
+        double[][] z = new double[m][];
+        int[] y = new int[m];
+        for (int i = 0; i < m; i++) {
+            z[i] = model.standardize(data.get(i).getFeatures());
+            y[i] = data.get(i).getLabel();
+        }
+
+        for (int it = 0; it < iterations; it++) {
+            double[] grad = IntStream.range(0, m).parallel()
+                    .collect(() -> new double[n + 1], (g, i) -> {
+                        double err = sigmoid(model.linear(z[i])) - y[i];
+                        for (int j = 0; j < n; j++) g[j] += err * z[i][j];
+                        g[n] += err;
+                    }, (a, b) -> {
+                        for (int j = 0; j <= n; j++) a[j] += b[j];
+                    });
+            for (int j = 0; j < n; j++) model.weights[j] -= learningRate * (grad[j] / m + l2 * model.weights[j]);
+            model.bias -= learningRate * grad[n] / m;
+        }
+        return model;
+    }
+
+    private double[] standardize(double[] x) {
+        double[] z = new double[x.length];
+        for (int j = 0; j < x.length; j++) z[j] = (x[j] - mean[j]) / std[j];
+        return z;
+    }
+
+    private double linear(double[] z) {
+        double s = bias;
+        for (int j = 0; j < z.length; j++) s += weights[j] * z[j];
+        return s;
+    }
+
+    private double linearRaw(double[] x) {
+        double s = bias;
+        for (int j = 0; j < x.length; j++) s += weights[j] * (x[j] - mean[j]) / std[j];
+        return s;
+    }
+
+    private static double sigmoid(double v) {
+        return 1 / (1 + Math.exp(-v));
+    }
+
+    public double probabilityOfDefault(double[] x) {
+        return sigmoid(linearRaw(x));
+    }
+
+    // ln(good odds) = -linear, so the score falls as default risk rises.
+    public int score(double[] x) {
+        return (int) Math.round(OFFSET - FACTOR * linearRaw(x));
+    }
+
+    // Writes the indices of the top k risk-increasing features into out; returns how many were found.
+    public int reasons(double[] x, int[] out) {
+        double[] contribution = new double[x.length];
+        for (int j = 0; j < x.length; j++) contribution[j] = weights[j] * (x[j] - mean[j]) / std[j];
+        int found = 0;
+        while (found < out.length) {
+            int best = -1;
+            for (int j = 0; j < x.length; j++) {
+                if (contribution[j] > 0 && (best < 0 || contribution[j] > contribution[best])) best = j;
+            }
+            if (best < 0) break;
+            out[found++] = best;
+            contribution[best] = 0;
+        }
+        return found;
+    }
+
+    public double getWeight(int feature) {
+        return weights[feature];
+    }
+
+    public void save(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(weights.length);
+            for (int j = 0; j < weights.length; j++) {
+                out.writeDouble(mean[j]);
+                out.writeDouble(std[j]);
+                out.writeDouble(weights[j]);
+            }
+            out.writeDouble(bias);
+        }
+    }
+
+    public static CreditModel load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a credit model: " + file);
+            int n = in.readInt();
+            if (n != Applicant.FEATURES.length) throw new IOException("Model has " + n + " features, expected " + Applicant.FEATURES.length);
+            CreditModel model = new CreditModel(n);
+            for (int j = 0; j < n; j++) {
+                model.mean[j] = in.readDouble();
+                model.std[j] = in.readDouble();
+                model.weights[j] = in.readDouble();
+            }
+            model.bias = in.readDouble();
+            return model;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Student roster indexed for lookups and ranking.
+// Names are unique keys (case-insensitive) held in a hash map for O(1) lookup; each
+// student owns a slot in the GradeStatistics column, whose Fenwick tree answers rank
+// and percentile queries in O(log range). Students with the same grade are chained in an
+// intrusive doubly-linked list, so top-N queries walk only the grades that are actually
+// present, from the highest down, and removal from a chain is O(1).
+class GradeIndex {
+    private final GradeStatistics stats = new GradeStatistics();
+    private final Map<String, Entry> byName = new HashMap<>();
+    private final Map<Integer, Entry> byGrade = new HashMap<>(); // head of each grade's chain
+    private Entry[] bySlot = new Entry[1024];
+
+    private static class Entry {
+        Student student;
+        int slot;
+        Entry prev;
+        Entry next;
+
+        Entry(Student student, int slot) {
+            this.student = student;
+            this.slot = slot;
+        }
+    }
+
+    // Adds a student, or replaces the grade of an existing student with the same name.
+    public synchronized void put(Student student) {
+        GradeStatistics.checkGrade(student.getGrade());
+        if (update(student.getName(), student.getGrade())) return;
+        int slot = stats.add(student.getGrade());
+        link(new Entry(student, slot));
+    }
+
+    // Bulk version of put; new students go through the parallel statistics path.
+    // Returns how many students were added; the rest of the batch updated a student with the same name.
+    public synchronized int putAll(List<Student> batch) {
+        for (Student s : batch) GradeStatistics.checkGrade(s.getGrade()); // before anything changes
+        List<Student> fresh = new ArrayList<>(batch.size());
+        List<Student> updates = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (Student s : batch) {
+            String k = key(s.getName());
+            if (byName.containsKey(k) || !seen.add(k)) updates.add(s);
+            else fresh.add(s);
+        }
+        int[] grades = new int[fresh.size()];
+        for (int i = 0; i < grades.length; i++) grades[i] = fresh.get(i).getGrade();
+        int first = stats.addAll(grades, 0, grades.length);
+        for (int i = 0; i < grades.length; i++) link(new Entry(fresh.get(i), first + i));
+        // existing names and repeats within the batch become updates, applied in batch order
+        for (Student s : updates) update(s.getName(), s.getGrade());
+        return fresh.size();
+    }
+
+    public synchronized boolean update(String name, int grade) {
+        GradeStatistics.checkGrade(grade);
+        Entry e = byName.get(key(name));
+        if (e == null) return false;
+        unchain(e);
+        e.student = new Student(e.student.getName(), grade);
+        stats.set(e.slot, grade);
+        chain(e);
+        return true;
+    }
+
+    public synchronized boolean remove(String name) {
+        Entry e = byName.remove(key(name));
+        if (e == null) return false;
+        unchain(e);
+        int last = stats.count() - 1;
+        stats.removeAt(e.slot);
+        if (e.slot != last) {
+            Entry moved = bySlot[last];
+            moved.slot = e.slot;
+            bySlot[e.slot] = moved;
+        }
+        bySlot[last] = null;
+        return true;
+    }
+
+    public synchronized Student get(String name) {
+        Entry e = byName.get(key(name));
+        return e == null ? null : e.student;
+    }
+
+    // 1-based competition rank (ties share a rank), or -1 if unknown
+    public synchronized long rank(String name) {
+        Entry e = byName.get(key(name));
+        return e == null ? -1 : stats.countAbove(e.student.getGrade()) + 1;
+    }
+
+    // share of students with a strictly lower grade, in [0, 100)
+    public synchronized double percentileOf(String name) {
+        Entry e = byName.get(key(name));
+        if (e == null) return Double.NaN;
+        return 100.0 * stats.countAtMost(e.student.getGrade() - 1) / stats.count();
+    }
+
+    // Students in the top percent of grades (at least one), highest first; ties at the cut-off are included.
+    public synchronized List<Student> topPercent(double percent) {
+        List<Student> out = new ArrayList<>();
+        int n = stats.count();
+        if (n == 0) return out;
+        long k = Math.max(1, (long) Math.ceil(percent / 100.0 * n));
+        int cutoff = stats.gradeAtRank(n - Math.min(k, n) + 1);
+        for (int g = stats.max(); g >= cutoff && g != Integer.MIN_VALUE; g = stats.nextLower(g)) {
+            for (Entry e = byGrade.get(g); e != null; e = e.next) out.add(e.student);
+        }
+        return out;
+    }
+
+    // Median grade of the named students (unknown names ignored); NaN if none match.
+    public synchronized double medianOf(Collection<String> names) {
+        int[] grades = new int[names.size()];
+        int n = 0;
+        for (String name : names) {
+            Entry e = byName.get(key(name));
+            if (e != null) grades[n++] = e.student.getGrade();
+        }
+        if (n == 0) return Double.NaN;
+        Arrays.sort(grades, 0, n);
+        return n % 2 == 1 ? grades[n / 2] : (grades[n / 2 - 1] + grades[n / 2]) / 2.0;
+    }
+
+    public GradeStatistics stats() {
+        return stats;
+    }
+
+    public synchronized int size() {
+        return stats.count();
+    }
+
+    // Live view in slot order (insertion order until a remove moves the last student forward).
+    public List<Student> students() {
+        return new AbstractList<Student>() {
+            @Override
+            public Student get(int i) {
+                synchronized (GradeIndex.this) {
+                    if (i < 0 || i >= stats.count()) throw new IndexOutOfBoundsException("index " + i);
+                    return bySlot[i].student;
+                }
+            }
+
+            @Override
+            public int size() {
+                return GradeIndex.this.size();
+            }
+        };
+    }
+
+    private void link(Entry e) {
+        if (e.slot >= bySlot.length) bySlot = Arrays.copyOf(bySlot, Math.max(e.slot + 1, bySlot.length * 2));
+        bySlot[e.slot] = e;
+        byName.put(key(e.student.getName()), e);
+        chain(e);
+    }
+
+    // push onto the front of the grade's chain
+    private void chain(Entry e) {
+        Entry head = byGrade.put(e.student.getGrade(), e);
+        e.prev = null;
+        e.next = head;
+        if (head != null) head.prev = e;
+    }
+
+    private void unchain(Entry e) {
+        if (e.prev != null) e.prev.next = e.next;
+        else if (e.next != null) byGrade.put(e.student.getGrade(), e.next);
+        else byGrade.remove(e.student.getGrade());
+        if (e.next != null) e.next.prev = e.prev;
+        e.prev = e.next = null;
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
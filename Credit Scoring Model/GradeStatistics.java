@@ -0,0 +1,319 @@
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// Grade statistics over a primitive int[] column, maintained incrementally on every add,
+// update and remove. Alongside the column we keep a counting histogram over the grade range
+// seen so far, with a Fenwick tree on top of it, so rank / median / percentile queries are
+// O(log range) and never sort. Bulk adds split large batches across cores and merge
+// per-chunk partial results. Column slots are stable until a remove, which moves the
+// last grade into the freed slot. Grades must lie in [MIN_GRADE, MAX_GRADE], which also
+// caps the histogram at 101 counters however wild the input.
+class GradeStatistics {
+    static final int MIN_GRADE = 0;
+    static final int MAX_GRADE = 100;
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private int[] grades = new int[1024];
+    private int count;
+    private long sum;
+    private long sumSquares;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+
+    private long[] counts = new long[0]; // counts[g - offset]
+    private long[] tree = new long[1];   // Fenwick tree over counts, 1-based
+    private int offset;
+
+    static boolean isValid(int grade) {
+        return grade >= MIN_GRADE && grade <= MAX_GRADE;
+    }
+
+    static void checkGrade(int grade) {
+        if (!isValid(grade)) {
+            throw new IllegalArgumentException("grade must be between " + MIN_GRADE + " and " + MAX_GRADE + ": " + grade);
+        }
+    }
+
+    // Returns the column slot the grade was stored in.
+    public synchronized int add(int grade) {
+        checkGrade(grade);
+        ensureCapacity(count + 1);
+        grades[count++] = grade;
+        sum += grade;
+        sumSquares += (long) grade * grade;
+        if (grade < min) min = grade;
+        if (grade > max) max = grade;
+        ensureRange(grade, grade);
+        counts[grade - offset]++;
+        treeAdd(grade - offset, 1);
+        return count - 1;
+    }
+
+    // Returns the slot of batch[from]; the rest follow consecutively.
+    public synchronized int addAll(int[] batch, int from, int to) {
+        int n = to - from;
+        if (n <= 0) return count;
+        int k = chunks(n);
+        Partial p = n >= PARALLEL_THRESHOLD
+                ? IntStream.range(0, k).parallel()
+                        .mapToObj(c -> Partial.of(batch, bound(from, n, k, c), bound(from, n, k, c + 1)))
+                        .reduce(Partial::merge).get()
+                : Partial.of(batch, from, to);
+        // the batch is all-or-nothing
+        checkGrade(p.min);
+        checkGrade(p.max);
+        ensureCapacity(count + n);
+        System.arraycopy(batch, from, grades, count, n);
+        count += n;
+        sum += p.sum;
+        sumSquares += p.sumSquares;
+        min = Math.min(min, p.min);
+        max = Math.max(max, p.max);
+        ensureRange(p.min, p.max);
+        // histogram: parallel per-chunk counts merged into the shared array
+        if (n >= PARALLEL_THRESHOLD) {
+            long[] merged = IntStream.range(0, k).parallel()
+                    .mapToObj(c -> localCounts(batch, bound(from, n, k, c), bound(from, n, k, c + 1)))
+                    .reduce(GradeStatistics::addCounts).get();
+            for (int i = 0; i < merged.length; i++) counts[i] += merged[i];
+        } else {
+            for (int i = from; i < to; i++) counts[batch[i] - offset]++;
+        }
+        rebuildTree();
+        return count - n;
+    }
+
+    public synchronized int gradeAt(int slot) {
+        checkSlot(slot);
+        return grades[slot];
+    }
+
+    public synchronized void set(int slot, int grade) {
+        checkSlot(slot);
+        checkGrade(grade);
+        int old = grades[slot];
+        if (old == grade) return;
+        grades[slot] = grade;
+        sum += grade - old;
+        sumSquares += (long) grade * grade - (long) old * old;
+        ensureRange(grade, grade);
+        counts[old - offset]--;
+        treeAdd(old - offset, -1);
+        counts[grade - offset]++;
+        treeAdd(grade - offset, 1);
+        refreshBounds();
+    }
+
+    // Removes the grade in slot; the grade from the last slot (if any) moves into it.
+    public synchronized int removeAt(int slot) {
+        checkSlot(slot);
+        int old = grades[slot];
+        grades[slot] = grades[--count];
+        sum -= old;
+        sumSquares -= (long) old * old;
+        counts[old - offset]--;
+        treeAdd(old - offset, -1);
+        refreshBounds();
+        return old;
+    }
+
+    public synchronized int count() {
+        return count;
+    }
+
+    public synchronized double mean() {
+        return count == 0 ? Double.NaN : (double) sum / count;
+    }
+
+    public synchronized int min() {
+        return min;
+    }
+
+    public synchronized int max() {
+        return max;
+    }
+
+    // population standard deviation
+    public synchronized double stdDev() {
+        if (count == 0) return Double.NaN;
+        double mean = (double) sum / count;
+        return Math.sqrt(Math.max(0, (double) sumSquares / count - mean * mean));
+    }
+
+    public synchronized double median() {
+        if (count == 0) return Double.NaN;
+        if (count % 2 == 1) return valueAtRank(count / 2 + 1);
+        return (valueAtRank(count / 2) + valueAtRank(count / 2 + 1)) / 2.0;
+    }
+
+    // nearest-rank percentile, p in (0, 100]
+    public synchronized int percentile(double p) {
+        if (count == 0) throw new IllegalStateException("no grades");
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * count));
+        return valueAtRank(rank);
+    }
+
+    // number of grades <= grade
+    public synchronized long countAtMost(int grade) {
+        if (count == 0 || grade < offset) return 0;
+        if (grade >= offset + counts.length - 1) return count;
+        return prefix(grade - offset);
+    }
+
+    // number of grades strictly above grade; a student's rank is countAbove(grade) + 1
+    public synchronized long countAbove(int grade) {
+        return count - countAtMost(grade);
+    }
+
+    public synchronized long countOf(int grade) {
+        if (count == 0 || grade < offset || grade >= offset + counts.length) return 0;
+        return counts[grade - offset];
+    }
+
+    // the grade at 1-based ascending rank
+    public synchronized int gradeAtRank(long rank) {
+        if (rank < 1 || rank > count) throw new IndexOutOfBoundsException("rank " + rank + " of " + count);
+        return valueAtRank(rank);
+    }
+
+    // the largest grade present below the given one, or Integer.MIN_VALUE if none
+    public synchronized int nextLower(int grade) {
+        long below = countAtMost(grade - 1);
+        return below == 0 ? Integer.MIN_VALUE : valueAtRank(below);
+    }
+
+    // counts per bucket of bucketWidth starting at the lowest grade seen
+    public synchronized long[] histogram(int bucketWidth) {
+        if (count == 0) return new long[0];
+        long[] out = new long[(max - min) / bucketWidth + 1];
+        for (int g = min; g <= max; g++) out[(g - min) / bucketWidth] += counts[g - offset];
+        return out;
+    }
+
+    // read-only view of the raw column, in insertion order
+    public synchronized int[] column() {
+        return Arrays.copyOf(grades, count);
+    }
+
+    // Fenwick descent: the smallest index whose prefix count reaches rank
+    private int valueAtRank(long rank) {
+        int pos = 0;
+        for (int step = Integer.highestOneBit(counts.length); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next <= counts.length && tree[next] < rank) {
+                pos = next;
+                rank -= tree[next];
+            }
+        }
+        return pos + offset;
+    }
+
+    private long prefix(int index) {
+        long s = 0;
+        for (int i = index + 1; i > 0; i -= i & -i) s += tree[i];
+        return s;
+    }
+
+    private void treeAdd(int index, long delta) {
+        for (int i = index + 1; i < tree.length; i += i & -i) tree[i] += delta;
+    }
+
+    // O(range) linear build, used after bulk adds and range widening
+    private void rebuildTree() {
+        tree = new long[counts.length + 1];
+        for (int i = 0; i < counts.length; i++) tree[i + 1] = counts[i];
+        for (int i = 1; i < tree.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < tree.length) tree[parent] += tree[i];
+        }
+    }
+
+    private void refreshBounds() {
+        if (count == 0) {
+            min = Integer.MAX_VALUE;
+            max = Integer.MIN_VALUE;
+        } else {
+            min = valueAtRank(1);
+            max = valueAtRank(count);
+        }
+    }
+
+    private void checkSlot(int slot) {
+        if (slot < 0 || slot >= count) throw new IndexOutOfBoundsException("slot " + slot + " of " + count);
+    }
+
+    private long[] localCounts(int[] batch, int from, int to) {
+        long[] local = new long[counts.length];
+        for (int i = from; i < to; i++) local[batch[i] - offset]++;
+        return local;
+    }
+
+    private static long[] addCounts(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) a[i] += b[i];
+        return a;
+    }
+
+    // start index of chunk c when [from, from + n) is cut into k chunks
+    private static int bound(int from, int n, int k, int c) {
+        return from + (int) ((long) n * c / k);
+    }
+
+    private static int chunks(int n) {
+        return Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 4, n / (PARALLEL_THRESHOLD / 4)));
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed > grades.length) grades = Arrays.copyOf(grades, Math.max(needed, grades.length * 2));
+    }
+
+    // widen the histogram to cover [lo, hi]
+    private void ensureRange(int lo, int hi) {
+        if (counts.length == 0) {
+            offset = lo;
+            counts = new long[hi - lo + 1];
+            tree = new long[counts.length + 1];
+            return;
+        }
+        int newLo = Math.min(lo, offset);
+        int newHi = Math.max(hi, offset + counts.length - 1);
+        if (newLo == offset && newHi == offset + counts.length - 1) return;
+        long[] widened = new long[newHi - newLo + 1];
+        System.arraycopy(counts, 0, widened, offset - newLo, counts.length);
+        counts = widened;
+        offset = newLo;
+        rebuildTree();
+    }
+
+    private static class Partial {
+        long sum;
+        long sumSquares;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+
+        static Partial of(int[] a, int from, int to) {
+            Partial p = new Partial();
+            long s = 0, sq = 0;
+            int mn = Integer.MAX_VALUE, mx = Integer.MIN_VALUE;
+            for (int i = from; i < to; i++) {
+                int g = a[i];
+                s += g;
+                sq += (long) g * g;
+                mn = Math.min(mn, g);
+                mx = Math.max(mx, g);
+            }
+            p.sum = s;
+            p.sumSquares = sq;
+            p.min = mn;
+            p.max = mx;
+            return p;
+        }
+
+        static Partial merge(Partial a, Partial b) {
+            a.sum += b.sum;
+            a.sumSquares += b.sumSquares;
+            a.min = Math.min(a.min, b.min);
+            a.max = Math.max(a.max, b.max);
+            return a;
+        }
+    }
+}
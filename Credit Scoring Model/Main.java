@@ -1,4 +1,8 @@
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
 
 class Student {
@@ -20,16 +24,35 @@ class Student {
 }
 
 public class Main {
+    private static final int REPORT_ROW_LIMIT = 100;
+    private static final int HISTOGRAM_BUCKET = 10;
+    private static final Path STORE_FILE = Paths.get("students.dat");
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         Scanner scanner = new Scanner(System.in);
-        ArrayList<Student> students = new ArrayList<>();
+        GradeIndex index = new GradeIndex();
+        GradeStatistics stats = index.stats();
+        List<Student> students = index.students();
+
+        long started = System.nanoTime();
+        StudentStore store = StudentStore.open(STORE_FILE, index);
+        if (!students.isEmpty()) {
+            System.out.printf("Loaded %d students from %s in %d ms%n",
+                    students.size(), STORE_FILE, (System.nanoTime() - started) / 1_000_000);
+        }
 
         while (true) {
             System.out.println("\n===== STUDENT GRADE TRACKER =====");
             System.out.println("1. Add Student");
             System.out.println("2. View Summary Report");
-            System.out.println("3. Exit");
+            System.out.println("3. Import Students from CSV");
+            System.out.println("4. Export Students to CSV");
+            System.out.println("5. Find Student Rank");
+            System.out.println("6. Top Students by Percent");
+            System.out.println("7. Median of Selected Students");
+            System.out.println("8. Update Student Grade");
+            System.out.println("9. Remove Student");
+            System.out.println("10. Exit");
             System.out.print("Enter your choice: ");
 
             int choice = scanner.nextInt();
@@ -41,9 +64,16 @@ public class Main {
 
                 System.out.print("Enter student grade: ");
                 int grade = scanner.nextInt();
+                if (!GradeStatistics.isValid(grade)) {
+                    System.out.println("Grade must be between " + GradeStatistics.MIN_GRADE + " and " + GradeStatistics.MAX_GRADE + "!");
+                    continue;
+                }
 
-                students.add(new Student(name, grade));
-                System.out.println("Student added successfully!");
+                Student student = new Student(name, grade);
+                boolean existed = index.get(name) != null;
+                index.put(student);
+                store.append(student);
+                System.out.println(existed ? "Existing student's grade updated!" : "Student added successfully!");
 
             } else if (choice == 2) {
                 if (students.isEmpty()) {
@@ -51,26 +81,108 @@ public class Main {
                     continue;
                 }
 
-                int total = 0;
-                int highest = Integer.MIN_VALUE;
-                int lowest = Integer.MAX_VALUE;
-
                 System.out.println("\n===== STUDENT REPORT =====");
-                for (Student s : students) {
+                int shown = Math.min(students.size(), REPORT_ROW_LIMIT);
+                for (int i = 0; i < shown; i++) {
+                    Student s = students.get(i);
                     System.out.println("Name: " + s.getName() + " | Grade: " + s.getGrade());
-                    total += s.getGrade();
-                    if (s.getGrade() > highest) highest = s.getGrade();
-                    if (s.getGrade() < lowest) lowest = s.getGrade();
                 }
-
-                double average = (double) total / students.size();
+                if (students.size() > shown) {
+                    System.out.println("... and " + (students.size() - shown) + " more students");
+                }
 
                 System.out.println("\n--- Statistics ---");
-                System.out.println("Average Grade: " + average);
-                System.out.println("Highest Grade: " + highest);
-                System.out.println("Lowest Grade: " + lowest);
+                System.out.println("Average Grade: " + stats.mean());
+                System.out.println("Highest Grade: " + stats.max());
+                System.out.println("Lowest Grade: " + stats.min());
+                System.out.println("Median Grade: " + stats.median());
+                System.out.printf("Std Deviation: %.2f%n", stats.stdDev());
+                System.out.println("25th / 75th / 90th Percentile: " + stats.percentile(25) + " / "
+                        + stats.percentile(75) + " / " + stats.percentile(90));
+                printHistogram(stats);
 
             } else if (choice == 3) {
+                System.out.print("Enter CSV file path: ");
+                Path csv = Paths.get(scanner.nextLine().trim());
+                try {
+                    long t0 = System.nanoTime();
+                    StudentStore.ImportResult imported = StudentStore.importCsv(csv);
+                    int added = index.putAll(imported.students);
+                    store.appendAll(imported.students);
+                    // names are unique, so a row for a name already on the roster updates that student
+                    System.out.printf("Imported %d rows: %d new students, %d merged into an existing name (%d lines skipped) in %d ms%n",
+                            imported.count(), added, imported.count() - added, imported.skipped,
+                            (System.nanoTime() - t0) / 1_000_000);
+                } catch (IOException e) {
+                    System.out.println("Import failed: " + e.getMessage());
+                }
+
+            } else if (choice == 4) {
+                System.out.print("Enter CSV file path: ");
+                Path csv = Paths.get(scanner.nextLine().trim());
+                try {
+                    StudentStore.exportCsv(csv, students);
+                    System.out.println("Exported " + students.size() + " students to " + csv);
+                } catch (IOException e) {
+                    System.out.println("Export failed: " + e.getMessage());
+                }
+
+            } else if (choice == 5) {
+                System.out.print("Enter student name: ");
+                String name = scanner.nextLine();
+                Student s = index.get(name);
+                if (s == null) {
+                    System.out.println("Student not found!");
+                    continue;
+                }
+                System.out.printf("%s | Grade: %d | Rank: %d of %d | Better than %.1f%% of students%n",
+                        s.getName(), s.getGrade(), index.rank(name), index.size(), index.percentileOf(name));
+
+            } else if (choice == 6) {
+                System.out.print("Enter top percent (e.g. 1 for top 1%): ");
+                double percent = scanner.nextDouble();
+                scanner.nextLine();
+                List<Student> top = index.topPercent(percent);
+                System.out.println("\n===== TOP " + percent + "% (" + top.size() + " students) =====");
+                int shown = Math.min(top.size(), REPORT_ROW_LIMIT);
+                for (int i = 0; i < shown; i++) {
+                    System.out.println("Name: " + top.get(i).getName() + " | Grade: " + top.get(i).getGrade());
+                }
+                if (top.size() > shown) {
+                    System.out.println("... and " + (top.size() - shown) + " more students");
+                }
+
+            } else if (choice == 7) {
+                System.out.print("Enter student names separated by commas: ");
+                List<String> names = Arrays.asList(scanner.nextLine().split(","));
+                double median = index.medianOf(names);
+                System.out.println(Double.isNaN(median) ? "No matching students!" : "Median Grade: " + median);
+
+            } else if (choice == 8) {
+                System.out.print("Enter student name: ");
+                String name = scanner.nextLine();
+                System.out.print("Enter new grade: ");
+                int grade = scanner.nextInt();
+                if (!GradeStatistics.isValid(grade)) {
+                    System.out.println("Grade must be between " + GradeStatistics.MIN_GRADE + " and " + GradeStatistics.MAX_GRADE + "!");
+                } else if (index.update(name, grade)) {
+                    store.append(index.get(name));
+                    System.out.println("Grade updated successfully!");
+                } else {
+                    System.out.println("Student not found!");
+                }
+
+            } else if (choice == 9) {
+                System.out.print("Enter student name: ");
+                String name = scanner.nextLine();
+                if (index.remove(name)) {
+                    store.appendRemove(name);
+                    System.out.println("Student removed successfully!");
+                } else {
+                    System.out.println("Student not found!");
+                }
+
+            } else if (choice == 10) {
                 System.out.println("Exiting program...");
                 break;
             } else {
@@ -78,6 +190,19 @@ public class Main {
             }
         }
 
+        store.close();
         scanner.close();
     }
+
+    private static void printHistogram(GradeStatistics stats) {
+        long[] buckets = stats.histogram(HISTOGRAM_BUCKET);
+        long peak = 1;
+        for (long b : buckets) peak = Math.max(peak, b);
+        System.out.println("\n--- Grade Distribution ---");
+        for (int i = 0; i < buckets.length; i++) {
+            int lo = stats.min() + i * HISTOGRAM_BUCKET;
+            int bar = (int) (buckets[i] * 40 / peak);
+            System.out.printf("%4d-%-4d | %-40s %d%n", lo, lo + HISTOGRAM_BUCKET - 1, "#".repeat(bar), buckets[i]);
+        }
+    }
 }
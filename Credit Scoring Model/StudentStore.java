@@ -0,0 +1,354 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Persistent student roster plus bulk CSV import / export.
+// The store is an append-only binary file: a magic header followed by
+// (UTF name, int grade) records, so reload is one buffered sequential read.
+// A later record for the same name is an update; a DELETED grade marks a removal.
+// CSV import reads the file in large windows and parses each window in
+// parallel chunks cut at line boundaries; export streams row by row.
+class StudentStore implements AutoCloseable {
+    private static final int MAGIC = 0x53545544; // "STUD"
+    private static final int WINDOW = 8 << 20;
+    private static final int CHUNK = 1 << 20;
+    private static final int DELETED = Integer.MIN_VALUE;
+
+    private final Path file;
+    private final DataOutputStream out;
+
+    private StudentStore(Path file) throws IOException {
+        this.file = file;
+        boolean fresh = !Files.exists(file) || Files.size(file) == 0;
+        this.out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 1 << 16));
+        if (fresh) {
+            out.writeInt(MAGIC);
+            out.flush();
+        }
+    }
+
+    // Opens (or creates) the store and replays every saved record into the index.
+    public static StudentStore open(Path file, GradeIndex into) throws IOException {
+        if (Files.exists(file) && Files.size(file) > 0) load(file, into);
+        return new StudentStore(file);
+    }
+
+    private static void load(Path file, GradeIndex into) throws IOException {
+        // runs of puts are replayed in bulk; a delete flushes the run first to keep ordering
+        List<Student> pending = new ArrayList<>();
+        long good = 4; // bytes up to the end of the last complete record
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a student store: " + file);
+            while (true) {
+                String name;
+                int grade;
+                try {
+                    name = in.readUTF();
+                    grade = in.readInt();
+                } catch (EOFException end) {
+                    break; // clean end, or a last record cut short by a crash
+                }
+                good += 2 + utfLength(name) + 4;
+                if (grade == DELETED) {
+                    into.putAll(pending);
+                    pending.clear();
+                    into.remove(name);
+                } else if (GradeStatistics.isValid(grade)) {
+                    pending.add(new Student(name, grade));
+                }
+            }
+        }
+        into.putAll(pending);
+        if (good < Files.size(file)) {
+            // drop the torn record, or new appends would land behind it and be lost on the next load
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                ch.truncate(good);
+            }
+        }
+    }
+
+    // bytes writeUTF produces after its 2-byte length (modified UTF-8)
+    private static int utfLength(String s) {
+        int n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            n += c >= 1 && c <= 0x7F ? 1 : c <= 0x7FF ? 2 : 3;
+        }
+        return n;
+    }
+
+    public void append(Student s) throws IOException {
+        write(s);
+        out.flush();
+    }
+
+    public void appendAll(List<Student> batch) throws IOException {
+        for (Student s : batch) write(s);
+        out.flush();
+    }
+
+    public void appendRemove(String name) throws IOException {
+        out.writeUTF(name);
+        out.writeInt(DELETED);
+        out.flush();
+    }
+
+    private void write(Student s) throws IOException {
+        out.writeUTF(s.getName());
+        out.writeInt(s.getGrade());
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    // ---- CSV ----
+
+    // Parses "name,grade" rows. Names may be double-quoted (with "" escapes and line breaks).
+    // Header, malformed and out-of-range lines are skipped; the number skipped is reported via the result.
+    public static ImportResult importCsv(Path csv) throws IOException {
+        ImportResult result = new ImportResult();
+        try (FileChannel ch = FileChannel.open(csv, StandardOpenOption.READ)) {
+            byte[] buf = new byte[WINDOW];
+            int carry = 0;
+            ByteBuffer bb = ByteBuffer.wrap(buf);
+            while (true) {
+                bb.clear().position(carry);
+                int read = 0;
+                while (bb.hasRemaining()) {
+                    int r = ch.read(bb);
+                    if (r < 0) break;
+                    read += r;
+                }
+                int limit = carry + read;
+                boolean eof = bb.hasRemaining();
+                if (limit == 0) break;
+
+                int end = parseWindow(buf, limit, eof, result);
+                if (end == 0 && !eof) {
+                    // a single line longer than the window: grow and keep reading
+                    buf = Arrays.copyOf(buf, buf.length * 2);
+                    bb = ByteBuffer.wrap(buf);
+                    carry = limit;
+                    continue;
+                }
+                carry = limit - end;
+                System.arraycopy(buf, end, buf, 0, carry);
+                if (eof) break;
+            }
+        }
+        return result;
+    }
+
+    // Parses the complete rows of buf[0, limit) and returns where they end; a trailing partial row
+    // is left for the next window unless this is the end of the file.
+    // Chunks start at the first line break after each CHUNK offset and are parsed in parallel. A line
+    // break inside a quoted name is not a row end, so the chunk before such a cut runs past it to
+    // finish its last row; the chunk after it is then parsed again from where that row really ended.
+    private static int parseWindow(byte[] buf, int limit, boolean eof, ImportResult into) {
+        int chunks = Math.max(1, (limit + CHUNK - 1) / CHUNK);
+        Chunk[] parts = IntStream.range(0, chunks).parallel()
+                .mapToObj(k -> parseChunk(buf, chunkStart(buf, k, limit), chunkStart(buf, k + 1, limit), limit, eof))
+                .toArray(Chunk[]::new);
+        int end = 0;
+        for (int k = 0; k < chunks; k++) {
+            Chunk c = parts[k];
+            if (c.from != end) c = parseChunk(buf, end, Math.max(end, chunkStart(buf, k + 1, limit)), limit, eof);
+            into.merge(c.rows);
+            end = c.end;
+            if (c.partial) break;
+        }
+        return end;
+    }
+
+    private static int chunkStart(byte[] buf, int k, int limit) {
+        if (k == 0) return 0;
+        long offset = (long) k * CHUNK;
+        if (offset >= limit) return limit;
+        int nl = nextNewline(buf, (int) offset, limit);
+        return nl < 0 ? limit : nl + 1;
+    }
+
+    // Parses the rows starting in [from, to); the last one may run on to limit.
+    private static Chunk parseChunk(byte[] buf, int from, int to, int limit, boolean eof) {
+        Chunk c = new Chunk(from);
+        int i = from;
+        while (i < to) {
+            int lineEnd = rowEnd(buf, i, limit);
+            if (lineEnd < 0) {
+                if (!eof) {
+                    c.partial = true;
+                    break;
+                }
+                lineEnd = limit;
+            }
+            int e = lineEnd;
+            if (e > i && buf[e - 1] == '\r') e--;
+            if (e > i) parseLine(buf, i, e, c.rows);
+            i = lineEnd + 1;
+        }
+        c.end = Math.min(i, limit);
+        return c;
+    }
+
+    private static void parseLine(byte[] buf, int from, int to, ImportResult r) {
+        String name;
+        int p;
+        if (buf[from] == '"') {
+            StringBuilder sb = new StringBuilder();
+            int q = from + 1;
+            int start = q;
+            while (true) {
+                if (q >= to) {
+                    r.skipped++;
+                    return;
+                }
+                if (buf[q] == '"') {
+                    sb.append(new String(buf, start, q - start, StandardCharsets.UTF_8));
+                    if (q + 1 < to && buf[q + 1] == '"') {
+                        sb.append('"');
+                        q += 2;
+                        start = q;
+                        continue;
+                    }
+                    break;
+                }
+                q++;
+            }
+            name = sb.toString();
+            p = q + 1;
+            if (p >= to || buf[p] != ',') {
+                r.skipped++;
+                return;
+            }
+        } else {
+            p = from;
+            while (p < to && buf[p] != ',') p++;
+            if (p >= to) {
+                r.skipped++;
+                return;
+            }
+            name = new String(buf, from, p - from, StandardCharsets.UTF_8).trim();
+        }
+        p++;
+        while (p < to && buf[p] == ' ') p++;
+        int end = to;
+        while (end > p && buf[end - 1] == ' ') end--;
+        boolean negative = p < end && buf[p] == '-';
+        if (negative) p++;
+        if (p >= end || end - p > 9) {
+            r.skipped++;
+            return;
+        }
+        int grade = 0;
+        for (; p < end; p++) {
+            int d = buf[p] - '0';
+            if (d < 0 || d > 9) {
+                r.skipped++;
+                return;
+            }
+            grade = grade * 10 + d;
+        }
+        if (negative) grade = -grade;
+        if (!GradeStatistics.isValid(grade)) {
+            r.skipped++;
+            return;
+        }
+        r.add(name, grade);
+    }
+
+    private static int nextNewline(byte[] buf, int from, int to) {
+        for (int i = from; i < to; i++) if (buf[i] == '\n') return i;
+        return -1;
+    }
+
+    // Index of the '\n' ending the row that starts at 'from', or -1 if the row runs past 'to'.
+    // A leading quoted name may span lines.
+    private static int rowEnd(byte[] buf, int from, int to) {
+        int i = from;
+        if (i < to && buf[i] == '"') {
+            for (i++; i < to; i++) {
+                if (buf[i] != '"') continue;
+                if (i + 1 < to && buf[i + 1] == '"') i++;
+                else break;
+            }
+        }
+        return nextNewline(buf, i, to);
+    }
+
+    public static void exportCsv(Path csv, List<Student> students) throws IOException {
+        try (BufferedWriter w = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            w.write("name,grade");
+            w.newLine();
+            for (Student s : students) {
+                writeName(w, s.getName());
+                w.write(',');
+                w.write(Integer.toString(s.getGrade()));
+                w.newLine();
+            }
+        }
+    }
+
+    // RFC 4180: fields holding a comma, quote or line break are quoted, with quotes doubled
+    private static void writeName(BufferedWriter w, String name) throws IOException {
+        if (name.indexOf(',') < 0 && name.indexOf('"') < 0 && name.indexOf('\n') < 0 && name.indexOf('\r') < 0) {
+            w.write(name);
+            return;
+        }
+        w.write('"');
+        w.write(name.replace("\"", "\"\""));
+        w.write('"');
+    }
+
+    // Rows parsed from one chunk of a window, and where the last of them ended.
+    private static class Chunk {
+        final ImportResult rows = new ImportResult();
+        final int from;
+        int end;
+        boolean partial; // the last row runs past the window
+
+        Chunk(int from) {
+            this.from = from;
+        }
+    }
+
+    // Rows parsed from a CSV, in file order.
+    static class ImportResult {
+        final List<Student> students = new ArrayList<>();
+        int skipped;
+
+        void add(String name, int grade) {
+            students.add(new Student(name, grade));
+        }
+
+        void merge(ImportResult other) {
+            students.addAll(other.students);
+            skipped += other.skipped;
+        }
+
+        int count() {
+            return students.size();
+        }
+    }
+
+}
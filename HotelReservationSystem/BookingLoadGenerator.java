@@ -0,0 +1,136 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drives concurrent search-then-book traffic at a running ReservationService and
+ * reports booking throughput and latency percentiles.
+ *
+ *   BookingLoadGenerator [baseUrl] [clients] [seconds]
+ *
+ * Each client is a virtual thread looping: search a random short stay up to a year out,
+ * then try to book the cheapest room returned. Conflicts (409) are expected once the
+ * calendar fills up and are counted separately from errors.
+ */
+public class BookingLoadGenerator {
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        HttpClient http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        List<Future<Result>> futures = new ArrayList<>();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                int client = i;
+                futures.add(pool.submit(() -> runClient(http, baseUrl, client, deadline)));
+            }
+        }
+
+        Result total = new Result();
+        for (Future<Result> f : futures) total.merge(f.get());
+        long[] lat = Arrays.copyOf(total.latencies, total.count);
+        Arrays.sort(lat);
+        System.out.printf("clients=%d duration=%ds%n", clients, seconds);
+        System.out.printf("bookings: %d ok, %d conflicts, %d sold out, %d errors%n",
+                total.booked, total.conflicts, total.soldOut, total.errors);
+        System.out.printf("throughput: %.1f bookings/s, %.1f requests/s%n",
+                total.booked / (double) seconds, total.count / (double) seconds);
+        if (lat.length > 0) {
+            System.out.printf("request latency: p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms%n",
+                    pct(lat, 50), pct(lat, 90), pct(lat, 99), lat[lat.length - 1] / 1e6);
+        }
+    }
+
+    private static Result runClient(HttpClient http, String baseUrl, int client, long deadline) {
+        Result r = new Result();
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            LocalDate in = LocalDate.now().plusDays(1 + rnd.nextInt(365));
+            LocalDate out = in.plusDays(1 + rnd.nextInt(5));
+            try {
+                long t0 = System.nanoTime();
+                HttpResponse<String> search = http.send(HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/rooms?checkIn=" + in + "&checkOut=" + out)).GET().build(),
+                        HttpResponse.BodyHandlers.ofString());
+                r.record(System.nanoTime() - t0);
+                if (search.statusCode() != 200) {
+                    r.errors++;
+                    continue;
+                }
+                String roomId = firstRoomId(search.body());
+                if (roomId == null) {
+                    r.soldOut++;
+                    continue;
+                }
+                String body = "{\"guest\":\"load-" + client + "\",\"roomId\":" + ReservationService.quote(roomId)
+                        + ",\"checkIn\":\"" + in + "\",\"checkOut\":\"" + out + "\"}";
+                t0 = System.nanoTime();
+                HttpResponse<String> book = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/reservations"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                        HttpResponse.BodyHandlers.ofString());
+                r.record(System.nanoTime() - t0);
+                if (book.statusCode() == 201) r.booked++;
+                else if (book.statusCode() == 409) r.conflicts++;
+                else r.errors++;
+            } catch (IOException e) {
+                r.errors++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return r;
+    }
+
+    private static String firstRoomId(String json) {
+        int i = json.indexOf("\"id\":\"");
+        if (i < 0) return null;
+        int start = i + 6;
+        return json.substring(start, json.indexOf('"', start));
+    }
+
+    private static double pct(long[] sorted, double p) {
+        int idx = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, idx)] / 1e6;
+    }
+
+    private static class Result {
+        long[] latencies = new long[1024];
+        int count;
+        long booked;
+        long conflicts;
+        long soldOut;
+        long errors;
+
+        void record(long nanos) {
+            if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = nanos;
+        }
+
+        void merge(Result o) {
+            for (int i = 0; i < o.count; i++) record(o.latencies[i]);
+            booked += o.booked;
+            conflicts += o.conflicts;
+            soldOut += o.soldOut;
+            errors += o.errors;
+        }
+    }
+}
@@ -3,17 +3,30 @@ import java.nio.file.*;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 
 public class HotelReservationSystem {
     // file names
     private static final String ROOMS_FILE = "rooms.csv";
     private static final String RESERVATIONS_FILE = "reservations.csv";
+    // extra properties live in properties/<propertyId>/{rooms,reservations}.csv
+    private static final String PROPERTIES_DIR = "properties";
+    private static final String DEFAULT_PROPERTY = "MAIN";
     private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ISO_LOCAL_DATE;
 
     public static void main(String[] args) {
         ReservationManager manager = new ReservationManager(ROOMS_FILE, RESERVATIONS_FILE);
         manager.loadData(); // create sample data if needed
+        PropertyManager properties = new PropertyManager(Paths.get(PROPERTIES_DIR), Runtime.getRuntime().availableProcessors());
+        properties.register(DEFAULT_PROPERTY, manager);
+        properties.loadAll();
 
         Scanner sc = new Scanner(System.in);
         boolean running = true;
@@ -26,7 +39,9 @@ public class HotelReservationSystem {
             System.out.println("3) Cancel a reservation");
             System.out.println("4) View reservations");
             System.out.println("5) View all rooms");
-            System.out.println("6) Exit");
+            System.out.println("6) Search all properties");
+            System.out.println("7) Flexible-date search");
+            System.out.println("8) Exit");
             System.out.print("Enter choice: ");
             String choice = sc.nextLine().trim();
 
@@ -48,6 +63,12 @@ public class HotelReservationSystem {
                         manager.printAllRooms();
                         break;
                     case "6":
+                        handleSearchAllProperties(properties, sc);
+                        break;
+                    case "7":
+                        handleFlexibleSearch(manager, sc);
+                        break;
+                    case "8":
                         running = false;
                         System.out.println("Goodbye!");
                         break;
@@ -59,9 +80,34 @@ public class HotelReservationSystem {
             }
         }
 
+        properties.shutdown();
         sc.close();
     }
 
+    private static void handleSearchAllProperties(PropertyManager properties, Scanner sc) {
+        System.out.println("--- Search All Properties ---");
+        LocalDate checkIn = readDate(sc, "Enter check-in date (YYYY-MM-DD): ");
+        LocalDate checkOut = readDate(sc, "Enter check-out date (YYYY-MM-DD): ");
+        if (!checkOut.isAfter(checkIn)) {
+            System.out.println("Check-out must be after check-in.");
+            return;
+        }
+        System.out.print("Filter by room type (Standard/Deluxe/Suite) or press ENTER for any: ");
+        String type = sc.nextLine().trim();
+        if (type.isEmpty()) type = null;
+
+        List<PropertyOffer> offers = properties.searchAvailable(checkIn, checkOut, type);
+        if (offers.isEmpty()) {
+            System.out.println("No rooms available at any property.");
+            return;
+        }
+        System.out.println("Available rooms (" + properties.propertyIds().size() + " properties searched):");
+        for (PropertyOffer o : offers) {
+            System.out.printf("Property: %s | RoomID: %s | Type: %s | Total: %.2f%n",
+                    o.propertyId, o.room.id, o.room.type, o.total);
+        }
+    }
+
     private static void handleSearch(ReservationManager manager, Scanner sc) {
         System.out.println("--- Search Available Rooms ---");
         LocalDate checkIn = readDate(sc, "Enter check-in date (YYYY-MM-DD): ");
@@ -79,21 +125,74 @@ public class HotelReservationSystem {
             System.out.println("No rooms available for the selected dates and filter.");
         } else {
             System.out.println("Available rooms:");
+            long nights = Duration.between(checkIn.atStartOfDay(), checkOut.atStartOfDay()).toDays();
             for (Room r : avail) {
-                long nights = Duration.between(checkIn.atStartOfDay(), checkOut.atStartOfDay()).toDays();
-                double total = nights * r.pricePerNight;
-                System.out.printf("RoomID: %s | Type: %s | Price/night: %.2f | Total (for %d nights): %.2f%n",
-                        r.id, r.type, r.pricePerNight, nights, total);
+                double total = manager.quote(r, checkIn, checkOut);
+                System.out.printf("RoomID: %s | Type: %s | Avg/night: %.2f | Total (for %d nights): %.2f%n",
+                        r.id, r.type, total / nights, nights, total);
             }
         }
     }
 
+    private static void handleFlexibleSearch(ReservationManager manager, Scanner sc) {
+        System.out.println("--- Flexible-Date Search ---");
+        LocalDate from = readDate(sc, "Enter earliest check-in date (YYYY-MM-DD): ");
+        LocalDate to = readDate(sc, "Enter latest check-out date (YYYY-MM-DD): ");
+        System.out.print("Enter number of nights: ");
+        int nights;
+        try {
+            nights = Integer.parseInt(sc.nextLine().trim());
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid number of nights.");
+            return;
+        }
+        if (nights < 1 || to.toEpochDay() - from.toEpochDay() < nights) {
+            System.out.println("The date range must be at least as long as the stay.");
+            return;
+        }
+        try {
+            manager.checkStay(from, to); // every check-in date gets quoted below
+        } catch (IllegalArgumentException e) {
+            System.out.println("Cannot search that range: " + e.getMessage());
+            return;
+        }
+        System.out.print("Filter by room type (Standard/Deluxe/Suite) or press ENTER for any: ");
+        String type = sc.nextLine().trim();
+        if (type.isEmpty()) type = null;
+
+        final int maxShown = 50;
+        List<StayOption> options = manager.searchFlexible(from, to, nights, type)
+                .limit(maxShown + 1)
+                .collect(Collectors.toList());
+        if (options.isEmpty()) {
+            System.out.println("No " + nights + "-night stays available in that range.");
+            return;
+        }
+        for (StayOption o : options.subList(0, Math.min(options.size(), maxShown))) {
+            // rates vary by night, so the cheapest stay can start on any day of the window
+            LocalDate cheapestDay = o.firstCheckIn;
+            double cheapest = Double.MAX_VALUE;
+            for (LocalDate d : o.checkInDates()) {
+                double total = manager.quote(o.room, d, d.plusDays(nights));
+                if (total < cheapest) {
+                    cheapest = total;
+                    cheapestDay = d;
+                }
+            }
+            System.out.printf("RoomID: %s | Type: %s | Check-in any day %s to %s | From %.2f (checking in %s)%n",
+                    o.room.id, o.room.type, o.firstCheckIn, o.lastCheckIn, cheapest, cheapestDay);
+        }
+        if (options.size() > maxShown) System.out.println("... more options available; narrow the search.");
+    }
+
     private static void handleBooking(ReservationManager manager, Scanner sc) {
         System.out.println("--- Book a Room ---");
         LocalDate checkIn = readDate(sc, "Enter check-in date (YYYY-MM-DD): ");
         LocalDate checkOut = readDate(sc, "Enter check-out date (YYYY-MM-DD): ");
-        if (!checkOut.isAfter(checkIn)) {
-            System.out.println("Check-out must be after check-in.");
+        try {
+            manager.checkStay(checkIn, checkOut);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Cannot book that stay: " + e.getMessage());
             return;
         }
         System.out.print("Filter by room type (Standard/Deluxe/Suite) or press ENTER for any: ");
@@ -107,7 +206,7 @@ public class HotelReservationSystem {
         }
         System.out.println("Available rooms:");
         for (Room r : avail) {
-            System.out.printf("- %s : %s (%.2f per night)%n", r.id, r.type, r.pricePerNight);
+            System.out.printf("- %s : %s (%.2f for the stay)%n", r.id, r.type, manager.quote(r, checkIn, checkOut));
         }
         System.out.print("Enter RoomID to book: ");
         String roomId = sc.nextLine().trim();
@@ -119,31 +218,43 @@ public class HotelReservationSystem {
         }
         System.out.print("Enter guest name: ");
         String guestName = sc.nextLine().trim();
+        if (!Reservation.isValidGuestName(guestName)) {
+            System.out.println("Guest name must be non-empty and contain no commas.");
+            return;
+        }
 
+        // hold the room while paying so the quoted total is what gets charged and booked
+        Reservation held = manager.holdReservation(guestName, chosen.get(), checkIn, checkOut);
+        if (held == null) {
+            System.out.println("Failed to create reservation. It might have been taken just now.");
+            return;
+        }
         long nights = Duration.between(checkIn.atStartOfDay(), checkOut.atStartOfDay()).toDays();
-        double total = nights * chosen.get().pricePerNight;
+        double total = held.totalPrice;
+        System.out.println("Nightly rates:");
+        for (LocalDate d = checkIn; d.isBefore(checkOut); d = d.plusDays(1)) {
+            System.out.printf("  %s : %.2f%n", d, manager.nightlyRate(chosen.get(), d));
+        }
         System.out.printf("Total price for %d nights: %.2f%n", nights, total);
 
         PaymentSimulator payment = new PaymentSimulator();
         System.out.print("Enter (simulated) card number to pay (any digits) or press ENTER to cancel: ");
         String card = sc.nextLine().trim();
         if (card.isEmpty()) {
+            manager.releaseHold(held.id);
             System.out.println("Booking cancelled by user.");
             return;
         }
         boolean paid = payment.processPayment(card, total);
         if (!paid) {
+            manager.releaseHold(held.id);
             System.out.println("Payment failed. Booking not completed.");
             return;
         }
 
-        Reservation res = manager.createReservation(guestName, chosen.get(), checkIn, checkOut, total);
-        if (res != null) {
-            System.out.printf("Booking successful. Reservation ID: %s%n", res.id);
-            System.out.println("Use this ID to cancel or view your reservation.");
-        } else {
-            System.out.println("Failed to create reservation. It might have been taken just now.");
-        }
+        manager.confirmHold(held.id);
+        System.out.printf("Booking successful. Reservation ID: %s%n", held.id);
+        System.out.println("Use this ID to cancel or view your reservation.");
     }
 
     private static void handleCancel(ReservationManager manager, Scanner sc) {
@@ -231,7 +342,7 @@ class Reservation {
     LocalDate checkIn;
     LocalDate checkOut;
     double totalPrice;
-    String status; // ACTIVE or CANCELLED
+    String status; // ACTIVE or CANCELLED, or HELD while payment is taken
 
     Reservation(String id, String guestName, String roomId, String roomType, LocalDate checkIn, LocalDate checkOut, double totalPrice, String status) {
         this.id = id;
@@ -244,9 +355,20 @@ class Reservation {
         this.status = status;
     }
 
+    /** Guest names are stored unquoted in the CSV, so they may not contain field or row separators. */
+    static boolean isValidGuestName(String name) {
+        if (name == null || name.isEmpty()) return false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == ',' || c == '\r' || c == '\n') return false;
+        }
+        return true;
+    }
+
     static Reservation fromCsv(String line) {
         // id,guestName,roomId,roomType,checkIn,checkOut,totalPrice,status
         String[] p = line.split(",", -1);
+        if (p.length != 8) throw new IllegalArgumentException("expected 8 fields, got " + p.length);
         return new Reservation(
                 p[0],
                 p[1],
@@ -281,11 +403,38 @@ class Reservation {
     }
 }
 
+/** Check-in dates for one room and stay length: any day from firstCheckIn to lastCheckIn inclusive. */
+class StayOption {
+    final Room room;
+    final LocalDate firstCheckIn;
+    final LocalDate lastCheckIn;
+    final int nights;
+
+    StayOption(Room room, LocalDate firstCheckIn, LocalDate lastCheckIn, int nights) {
+        this.room = room;
+        this.firstCheckIn = firstCheckIn;
+        this.lastCheckIn = lastCheckIn;
+        this.nights = nights;
+    }
+
+    List<LocalDate> checkInDates() {
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate d = firstCheckIn; !d.isAfter(lastCheckIn); d = d.plusDays(1)) dates.add(d);
+        return dates;
+    }
+}
+
 class ReservationManager {
     private Map<String, Room> rooms = new HashMap<>();
     private Map<String, Reservation> reservations = new HashMap<>();
+    // active bookings per room: check-in epoch day -> check-out epoch day (non-overlapping)
+    private final Map<String, TreeMap<Long, Long>> bookedByRoom = new HashMap<>();
     private final String roomsFile;
     private final String reservationsFile;
+    private final PricingEngine pricing = new PricingEngine(Clock.systemDefaultZone());
+    // a lock rather than the monitor: the reservations file is written while holding it, and a
+    // virtual thread blocked inside synchronized pins its carrier thread (as do its waiters)
+    private final ReentrantLock lock = new ReentrantLock();
 
     ReservationManager(String roomsFile, String reservationsFile) {
         this.roomsFile = roomsFile;
@@ -293,11 +442,14 @@ class ReservationManager {
     }
 
     void loadData() {
+        lock.lock();
         try {
             loadRooms();
             loadReservations();
         } catch (Exception e) {
             System.out.println("Error loading data: " + e.getMessage());
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -312,6 +464,7 @@ class ReservationManager {
             if (line.trim().isEmpty()) continue;
             Room r = Room.fromCsv(line);
             rooms.put(r.id, r);
+            pricing.registerRoom(r);
         }
     }
 
@@ -324,7 +477,10 @@ class ReservationManager {
                 new Room("R202", "Deluxe", 4500),
                 new Room("S301", "Suite", 9000)
         );
-        for (Room r : sample) rooms.put(r.id, r);
+        for (Room r : sample) {
+            rooms.put(r.id, r);
+            pricing.registerRoom(r);
+        }
         saveRooms();
         System.out.println("Sample rooms created in " + roomsFile);
     }
@@ -343,17 +499,33 @@ class ReservationManager {
             return;
         }
         List<String> lines = Files.readAllLines(p);
+        int skipped = 0;
         for (String line : lines) {
             if (line.trim().isEmpty()) continue;
-            Reservation r = Reservation.fromCsv(line);
+            Reservation r;
+            try {
+                r = Reservation.fromCsv(line);
+            } catch (RuntimeException e) {
+                // one bad row must not drop the rest, or the next save would overwrite them
+                skipped++;
+                continue;
+            }
             reservations.put(r.id, r);
+            if (r.status.equalsIgnoreCase("ACTIVE")) {
+                indexBooking(r);
+                pricing.onBooked(r);
+            }
         }
+        if (skipped > 0) System.out.println("Skipped " + skipped + " malformed reservation row(s) in " + reservationsFile);
     }
 
-    private synchronized void saveReservations() {
+    // callers hold the lock
+    private void saveReservations() {
         try {
             List<String> lines = new ArrayList<>();
-            for (Reservation r : reservations.values()) lines.add(r.toCsv());
+            for (Reservation r : reservations.values()) {
+                if (!r.status.equals("HELD")) lines.add(r.toCsv());
+            }
             Files.write(Paths.get(reservationsFile), lines, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
         } catch (IOException e) {
             System.out.println("Failed to save reservations: " + e.getMessage());
@@ -361,85 +533,303 @@ class ReservationManager {
     }
 
     List<Room> searchAvailable(LocalDate checkIn, LocalDate checkOut, String typeFilter) {
-        List<Room> result = new ArrayList<>();
-        for (Room room : rooms.values()) {
-            if (typeFilter != null && !typeFilter.isEmpty() && !room.type.equalsIgnoreCase(typeFilter)) continue;
-            boolean occupied = false;
-            for (Reservation res : reservations.values()) {
-                if (!res.status.equalsIgnoreCase("ACTIVE")) continue;
-                if (!res.roomId.equals(room.id)) continue;
-                if (res.overlaps(checkIn, checkOut)) {
-                    occupied = true;
-                    break;
+        lock.lock();
+        try {
+            List<Room> result = new ArrayList<>();
+            long in = checkIn.toEpochDay();
+            long out = checkOut.toEpochDay();
+            for (Room room : rooms.values()) {
+                if (typeFilter != null && !typeFilter.isEmpty() && !room.type.equalsIgnoreCase(typeFilter)) continue;
+                TreeMap<Long, Long> booked = bookedByRoom.get(room.id);
+                // the latest booking starting before checkOut is the only one that can overlap
+                Map.Entry<Long, Long> last = booked == null ? null : booked.lowerEntry(out);
+                if (last == null || last.getValue() <= in) result.add(room);
+            }
+            // sort by price then id
+            result.sort(Comparator.comparingDouble((Room r) -> r.pricePerNight).thenComparing(r -> r.id));
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Every feasible check-in date for a stay of the given length inside [from, to),
+     * as one StayOption per free gap per room, cheapest rooms first.
+     * The booked intervals are snapshotted under the lock; gaps are then generated
+     * one at a time as the stream is consumed, within a room as well as across rooms.
+     */
+    Stream<StayOption> searchFlexible(LocalDate from, LocalDate to, int nights, String typeFilter) {
+        long lo = from.toEpochDay();
+        long hi = to.toEpochDay();
+        List<Room> candidates = new ArrayList<>();
+        List<long[]> intervals = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Room room : rooms.values()) {
+                if (typeFilter != null && !typeFilter.isEmpty() && !room.type.equalsIgnoreCase(typeFilter)) continue;
+                candidates.add(room);
+            }
+            candidates.sort(Comparator.comparingDouble((Room r) -> r.pricePerNight).thenComparing(r -> r.id));
+            for (Room room : candidates) {
+                TreeMap<Long, Long> booked = bookedByRoom.get(room.id);
+                if (booked == null) {
+                    intervals.add(new long[0]);
+                    continue;
+                }
+                Map.Entry<Long, Long> before = booked.lowerEntry(lo);
+                NavigableMap<Long, Long> inRange = booked.subMap(lo, true, hi, false);
+                long[] flat = new long[2 * (inRange.size() + 1)];
+                int n = 0;
+                if (before != null && before.getValue() > lo) {
+                    flat[n++] = before.getKey();
+                    flat[n++] = before.getValue();
                 }
+                for (Map.Entry<Long, Long> e : inRange.entrySet()) {
+                    flat[n++] = e.getKey();
+                    flat[n++] = e.getValue();
+                }
+                intervals.add(Arrays.copyOf(flat, n));
             }
-            if (!occupied) result.add(room);
+        } finally {
+            lock.unlock();
         }
-        // sort by price then id
-        result.sort(Comparator.comparingDouble((Room r) -> r.pricePerNight).thenComparing(r -> r.id));
-        return result;
+        return IntStream.range(0, candidates.size()).boxed()
+                .flatMap(i -> freeGaps(candidates.get(i), intervals.get(i), lo, hi, nights));
+    }
+
+    /**
+     * The gap before booking i / 2 (or after the last one when i == booked.length) runs from
+     * the previous check-out to this check-in, clipped to [lo, hi); the bookings are sorted and
+     * disjoint, so each gap depends only on its neighbours and is produced on demand.
+     */
+    private static Stream<StayOption> freeGaps(Room room, long[] booked, long lo, long hi, int nights) {
+        return IntStream.iterate(0, i -> i <= booked.length, i -> i + 2)
+                .filter(i -> gapEnd(booked, i, hi) - gapStart(booked, i, lo) >= nights)
+                .mapToObj(i -> new StayOption(room, LocalDate.ofEpochDay(gapStart(booked, i, lo)),
+                        LocalDate.ofEpochDay(gapEnd(booked, i, hi) - nights), nights));
+    }
+
+    private static long gapStart(long[] booked, int i, long lo) {
+        return i == 0 ? lo : Math.max(lo, booked[i - 1]);
+    }
+
+    private static long gapEnd(long[] booked, int i, long hi) {
+        return i < booked.length ? Math.min(booked[i], hi) : hi;
+    }
+
+    private void indexBooking(Reservation r) {
+        bookedByRoom.computeIfAbsent(r.roomId, k -> new TreeMap<>())
+                .put(r.checkIn.toEpochDay(), r.checkOut.toEpochDay());
+    }
+
+    double quote(Room room, LocalDate checkIn, LocalDate checkOut) {
+        return pricing.quote(room, checkIn, checkOut);
+    }
+
+    double nightlyRate(Room room, LocalDate night) {
+        return pricing.nightlyRate(room, night);
     }
 
     Reservation createReservation(String guestName, Room room, LocalDate checkIn, LocalDate checkOut, double totalPrice) {
-        // Re-check availability to avoid race conditions
-        List<Room> avail = searchAvailable(checkIn, checkOut, room.type);
-        boolean stillAvailable = avail.stream().anyMatch(r -> r.id.equals(room.id));
-        if (!stillAvailable) return null;
+        lock.lock();
+        try {
+            checkGuestName(guestName);
+            // Re-check availability to avoid race conditions
+            List<Room> avail = searchAvailable(checkIn, checkOut, room.type);
+            boolean stillAvailable = avail.stream().anyMatch(r -> r.id.equals(room.id));
+            if (!stillAvailable) return null;
 
-        String id = UUID.randomUUID().toString();
-        Reservation r = new Reservation(id, guestName, room.id, room.type, checkIn, checkOut, totalPrice, "ACTIVE");
-        reservations.put(id, r);
-        saveReservations();
-        return r;
+            String id = UUID.randomUUID().toString();
+            Reservation r = new Reservation(id, guestName, room.id, room.type, checkIn, checkOut, totalPrice, "ACTIVE");
+            reservations.put(id, r);
+            indexBooking(r);
+            pricing.onBooked(r);
+            saveReservations();
+            return r;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks the room for the stay and prices it at the current rate, both under the lock,
+     * so the amount charged is the amount stored and a paid booking cannot lose the room.
+     * The hold must be followed by confirmHold or releaseHold.
+     *
+     * @return the HELD reservation, or null if the room is no longer available
+     */
+    Reservation holdReservation(String guestName, Room room, LocalDate checkIn, LocalDate checkOut) {
+        checkStay(checkIn, checkOut);
+        lock.lock();
+        try {
+            checkGuestName(guestName);
+            List<Room> avail = searchAvailable(checkIn, checkOut, room.type);
+            if (avail.stream().noneMatch(r -> r.id.equals(room.id))) return null;
+
+            double total = pricing.quote(room, checkIn, checkOut);
+            Reservation r = new Reservation(UUID.randomUUID().toString(), guestName, room.id, room.type, checkIn, checkOut, total, "HELD");
+            reservations.put(r.id, r);
+            indexBooking(r);
+            pricing.onBooked(r);
+            return r;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Rejects stays that are empty, start in the past or end beyond the booking horizon. */
+    void checkStay(LocalDate checkIn, LocalDate checkOut) {
+        if (!checkOut.isAfter(checkIn)) throw new IllegalArgumentException("checkOut must be after checkIn");
+        LocalDate today = pricing.today();
+        if (checkIn.isBefore(today)) throw new IllegalArgumentException("checkIn must not be in the past");
+        if (checkOut.isAfter(today.plusDays(PricingEngine.HORIZON_DAYS))) {
+            throw new IllegalArgumentException("checkOut must be within " + PricingEngine.HORIZON_DAYS + " days of today");
+        }
+    }
+
+    private static void checkGuestName(String guestName) {
+        if (!Reservation.isValidGuestName(guestName)) {
+            throw new IllegalArgumentException("guest name must be non-empty and contain no commas or line breaks");
+        }
+    }
+
+    boolean confirmHold(String reservationId) {
+        lock.lock();
+        try {
+            Reservation r = reservations.get(reservationId);
+            if (r == null || !r.status.equals("HELD")) return false;
+            r.status = "ACTIVE";
+            saveReservations();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Drops a hold whose payment failed; it was never persisted, so it leaves no record. */
+    boolean releaseHold(String reservationId) {
+        lock.lock();
+        try {
+            Reservation r = reservations.get(reservationId);
+            if (r == null || !r.status.equals("HELD")) return false;
+            reservations.remove(reservationId);
+            TreeMap<Long, Long> booked = bookedByRoom.get(r.roomId);
+            if (booked != null) booked.remove(r.checkIn.toEpochDay(), r.checkOut.toEpochDay());
+            pricing.onCancelled(r);
+            return true;
+        } finally {
+            lock.unlock();
+        }
     }
 
     boolean cancelReservation(String reservationId) {
-        Reservation r = reservations.get(reservationId);
-        if (r == null) return false;
-        if (!r.status.equalsIgnoreCase("ACTIVE")) return false;
-        r.status = "CANCELLED";
-        saveReservations();
-        return true;
+        lock.lock();
+        try {
+            Reservation r = reservations.get(reservationId);
+            if (r == null) return false;
+            if (!r.status.equalsIgnoreCase("ACTIVE")) return false;
+            r.status = "CANCELLED";
+            TreeMap<Long, Long> booked = bookedByRoom.get(r.roomId);
+            if (booked != null) booked.remove(r.checkIn.toEpochDay(), r.checkOut.toEpochDay());
+            pricing.onCancelled(r);
+            saveReservations();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Room getRoom(String roomId) {
+        lock.lock();
+        try {
+            return rooms.get(roomId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Reservation getReservation(String reservationId) {
+        lock.lock();
+        try {
+            return reservations.get(reservationId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<Reservation> reservationsByGuest(String guestName) {
+        lock.lock();
+        try {
+            List<Reservation> list = new ArrayList<>();
+            for (Reservation r : reservations.values()) {
+                if (r.guestName.equalsIgnoreCase(guestName)) list.add(r);
+            }
+            list.sort(Comparator.comparing(r -> r.checkIn));
+            return list;
+        } finally {
+            lock.unlock();
+        }
     }
 
     void printAllRooms() {
-        System.out.println("--- Rooms ---");
-        List<Room> list = new ArrayList<>(rooms.values());
-        list.sort(Comparator.comparing(r -> r.id));
-        for (Room r : list) {
-            System.out.printf("RoomID: %s | Type: %s | Price/night: %.2f%n", r.id, r.type, r.pricePerNight);
+        lock.lock();
+        try {
+            System.out.println("--- Rooms ---");
+            List<Room> list = new ArrayList<>(rooms.values());
+            list.sort(Comparator.comparing(r -> r.id));
+            for (Room r : list) {
+                System.out.printf("RoomID: %s | Type: %s | Price/night: %.2f%n", r.id, r.type, r.pricePerNight);
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
     void printAllReservations() {
-        System.out.println("--- All Reservations ---");
-        if (reservations.isEmpty()) {
-            System.out.println("No reservations.");
-            return;
+        lock.lock();
+        try {
+            System.out.println("--- All Reservations ---");
+            if (reservations.isEmpty()) {
+                System.out.println("No reservations.");
+                return;
+            }
+            List<Reservation> list = new ArrayList<>(reservations.values());
+            list.sort(Comparator.comparing(r -> r.checkIn));
+            for (Reservation r : list) printReservationSummary(r);
+        } finally {
+            lock.unlock();
         }
-        List<Reservation> list = new ArrayList<>(reservations.values());
-        list.sort(Comparator.comparing(r -> r.checkIn));
-        for (Reservation r : list) printReservationSummary(r);
     }
 
     void printReservationsByGuest(String guestName) {
-        System.out.println("--- Reservations for: " + guestName + " ---");
-        boolean found = false;
-        for (Reservation r : reservations.values()) {
-            if (r.guestName.equalsIgnoreCase(guestName)) {
-                printReservationSummary(r);
-                found = true;
+        lock.lock();
+        try {
+            System.out.println("--- Reservations for: " + guestName + " ---");
+            boolean found = false;
+            for (Reservation r : reservations.values()) {
+                if (r.guestName.equalsIgnoreCase(guestName)) {
+                    printReservationSummary(r);
+                    found = true;
+                }
             }
+            if (!found) System.out.println("No reservations found for that guest.");
+        } finally {
+            lock.unlock();
         }
-        if (!found) System.out.println("No reservations found for that guest.");
     }
 
     void printReservationById(String id) {
-        Reservation r = reservations.get(id);
-        if (r == null) {
-            System.out.println("No reservation with ID: " + id);
-        } else {
-            printReservationSummary(r);
+        lock.lock();
+        try {
+            Reservation r = reservations.get(id);
+            if (r == null) {
+                System.out.println("No reservation with ID: " + id);
+            } else {
+                printReservationSummary(r);
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -449,6 +839,309 @@ class ReservationManager {
     }
 }
 
+/* -------------------------
+   Dynamic pricing
+   ------------------------- */
+
+/**
+ * Nightly rates driven by occupancy, lead time and room type.
+ * Each room type has a RateCalendar of per-night multipliers that is filled lazily and
+ * cached; booking or cancelling only invalidates the nights that reservation covers.
+ * A room's nightly rate is its base pricePerNight times the multiplier for that night,
+ * and stay totals come from a prefix sum over the calendar, so quoting a long stay
+ * costs two array reads once the calendar is warm.
+ */
+class PricingEngine {
+    /** Nights bookable ahead of today; the rate calendars cache nothing outside [today, today + HORIZON_DAYS). */
+    static final int HORIZON_DAYS = 730;
+
+    private final Clock clock;
+    private final Map<String, RateCalendar> calendars = new HashMap<>();
+
+    PricingEngine(Clock clock) {
+        this.clock = clock;
+    }
+
+    synchronized void registerRoom(Room room) {
+        calendar(room.type).addRoom();
+    }
+
+    void onBooked(Reservation r) {
+        calendar(r.roomType).adjust(r.checkIn, r.checkOut, 1, today());
+    }
+
+    void onCancelled(Reservation r) {
+        calendar(r.roomType).adjust(r.checkIn, r.checkOut, -1, today());
+    }
+
+    double nightlyRate(Room room, LocalDate night) {
+        return round2(room.pricePerNight * calendar(room.type).multiplier(night, today()));
+    }
+
+    double quote(Room room, LocalDate checkIn, LocalDate checkOut) {
+        return round2(room.pricePerNight * calendar(room.type).sum(checkIn, checkOut, today()));
+    }
+
+    LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    private synchronized RateCalendar calendar(String type) {
+        return calendars.computeIfAbsent(type.toLowerCase(), RateCalendar::new);
+    }
+
+    private static double round2(double v) {
+        return Math.round(v * 100) / 100.0;
+    }
+}
+
+/**
+ * Per-room-type calendar: booked-room counts and cached multipliers indexed by epoch day.
+ * prefix[i] holds the sum of multipliers for days [first, first + i) and is valid up to
+ * validPrefix; an invalidated night drops validPrefix back to that night only.
+ * Only nights inside the booking horizon are indexed, so the arrays stay bounded whatever
+ * dates callers ask about; nights outside it are priced one by one and never cached.
+ */
+class RateCalendar {
+    private static final double NOT_CACHED = -1;
+
+    private final double typeElasticity;
+    private int totalRooms;
+    private long first;         // epoch day of index 0
+    private int[] booked = new int[0];
+    private double[] rate = new double[0];
+    private double[] prefix = new double[1];
+    private int validPrefix;
+    private LocalDate pricedOn;  // lead times are relative to this day
+
+    RateCalendar(String type) {
+        // pricier room types react more strongly to occupancy
+        switch (type) {
+            case "suite":
+                typeElasticity = 1.5;
+                break;
+            case "deluxe":
+                typeElasticity = 1.2;
+                break;
+            default:
+                typeElasticity = 1.0;
+        }
+    }
+
+    synchronized void addRoom() {
+        totalRooms++;
+        invalidate(0, rate.length);
+    }
+
+    // nights already past or beyond the horizon can't be booked, so they aren't counted
+    synchronized void adjust(LocalDate checkIn, LocalDate checkOut, int delta, LocalDate today) {
+        roll(today);
+        long lo = Math.max(checkIn.toEpochDay(), today.toEpochDay());
+        long hi = Math.min(checkOut.toEpochDay(), today.toEpochDay() + PricingEngine.HORIZON_DAYS);
+        if (lo >= hi) return;
+        int from = index(lo);
+        int to = index(hi);
+        for (int i = from; i < to; i++) booked[i] = Math.max(0, booked[i] + delta);
+        invalidate(from, to);
+    }
+
+    synchronized double multiplier(LocalDate night, LocalDate today) {
+        roll(today);
+        long day = night.toEpochDay();
+        if (!inHorizon(day, day + 1, today)) return compute(day, bookedOn(day));
+        return rateAt(index(day));
+    }
+
+    // sum of multipliers over nights [checkIn, checkOut)
+    synchronized double sum(LocalDate checkIn, LocalDate checkOut, LocalDate today) {
+        roll(today);
+        if (!inHorizon(checkIn.toEpochDay(), checkOut.toEpochDay(), today)) {
+            double s = 0;
+            for (long d = checkIn.toEpochDay(); d < checkOut.toEpochDay(); d++) s += compute(d, bookedOn(d));
+            return s;
+        }
+        int from = index(checkIn.toEpochDay());
+        int to = index(checkOut.toEpochDay());
+        for (; validPrefix < to; validPrefix++) prefix[validPrefix + 1] = prefix[validPrefix] + rateAt(validPrefix);
+        return prefix[to] - prefix[from];
+    }
+
+    private static boolean inHorizon(long fromDay, long toDay, LocalDate today) {
+        return fromDay >= today.toEpochDay() && toDay <= today.toEpochDay() + PricingEngine.HORIZON_DAYS;
+    }
+
+    // booked rooms on a night, without widening the arrays
+    private int bookedOn(long epochDay) {
+        long i = epochDay - first;
+        return i >= 0 && i < booked.length ? booked[(int) i] : 0;
+    }
+
+    private double rateAt(int i) {
+        if (rate[i] == NOT_CACHED) rate[i] = compute(first + i, booked[i]);
+        return rate[i];
+    }
+
+    private double compute(long epochDay, int bookedRooms) {
+        double occupancy = totalRooms == 0 ? 0 : Math.min(1.0, (double) bookedRooms / totalRooms);
+        // 0.85 when empty, rising with occupancy; steeper for premium types
+        double m = 0.85 + 0.6 * typeElasticity * occupancy * occupancy;
+
+        long leadDays = epochDay - pricedOn.toEpochDay();
+        if (leadDays <= 2) m *= 1.15;        // last minute
+        else if (leadDays >= 60) m *= 0.90;  // early bird
+        else if (leadDays >= 21) m *= 0.95;
+
+        DayOfWeek dow = LocalDate.ofEpochDay(epochDay).getDayOfWeek();
+        if (dow == DayOfWeek.FRIDAY || dow == DayOfWeek.SATURDAY) m *= 1.10;
+        return m;
+    }
+
+    // lead-time factors shift every day, so a new day invalidates everything once
+    private void roll(LocalDate today) {
+        if (!today.equals(pricedOn)) {
+            pricedOn = today;
+            invalidate(0, rate.length);
+        }
+    }
+
+    private void invalidate(int from, int to) {
+        Arrays.fill(rate, from, to, NOT_CACHED);
+        validPrefix = Math.min(validPrefix, from);
+    }
+
+    // index of an epoch day, widening the arrays to include it (and the day after, for stay ends)
+    private int index(long epochDay) {
+        if (booked.length == 0) {
+            first = epochDay;
+            grow(0, 1);
+        }
+        if (epochDay < first) grow((int) (first - epochDay), 0);
+        long end = epochDay - first + 1;
+        if (end >= booked.length) grow(0, (int) (end - booked.length + 1));
+        return (int) (epochDay - first);
+    }
+
+    private void grow(int before, int after) {
+        // grow geometrically so repeated widening stays amortised O(1) per day
+        int slack = Math.max(booked.length / 2, 32);
+        if (before > 0) before += slack;
+        if (after > 0) after += slack;
+        int n = booked.length + before + after;
+        int[] b = new int[n];
+        double[] r = new double[n];
+        Arrays.fill(r, NOT_CACHED);
+        System.arraycopy(booked, 0, b, before, booked.length);
+        System.arraycopy(rate, 0, r, before, rate.length);
+        booked = b;
+        rate = r;
+        prefix = Arrays.copyOf(prefix, n + 1);
+        if (before > 0) {
+            first -= before;
+            validPrefix = 0;
+        }
+    }
+}
+
+/* -------------------------
+   Multi-property partitioning
+   ------------------------- */
+
+/**
+ * One ReservationManager shard per property, each with its own files and its own monitor,
+ * so a busy property only contends with itself. Cross-property searches fan out to every
+ * shard on a dedicated fork-join pool and merge the offers by quoted total.
+ */
+class PropertyManager {
+    private final Path baseDir;
+    private final Map<String, ReservationManager> shards = new ConcurrentHashMap<>();
+    private final ForkJoinPool pool;
+
+    PropertyManager(Path baseDir, int parallelism) {
+        this.baseDir = baseDir;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /** Registers an already-loaded manager, e.g. the single-hotel files in the working directory. */
+    void register(String propertyId, ReservationManager manager) {
+        shards.put(propertyId, manager);
+    }
+
+    /** Creates (or opens) a property under the base directory and loads its data. */
+    ReservationManager addProperty(String propertyId) throws IOException {
+        Path dir = baseDir.resolve(propertyId);
+        Files.createDirectories(dir);
+        ReservationManager m = new ReservationManager(dir.resolve("rooms.csv").toString(), dir.resolve("reservations.csv").toString());
+        m.loadData();
+        ReservationManager existing = shards.putIfAbsent(propertyId, m);
+        return existing != null ? existing : m;
+    }
+
+    /** Loads every property directory under the base directory, in parallel. */
+    void loadAll() {
+        if (!Files.isDirectory(baseDir)) return;
+        List<String> ids = new ArrayList<>();
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(baseDir, Files::isDirectory)) {
+            for (Path d : dirs) ids.add(d.getFileName().toString());
+        } catch (IOException e) {
+            System.out.println("Error listing properties: " + e.getMessage());
+            return;
+        }
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (String id : ids) {
+            tasks.add(pool.submit(() -> {
+                try {
+                    addProperty(id);
+                } catch (IOException e) {
+                    System.out.println("Error loading property " + id + ": " + e.getMessage());
+                }
+            }));
+        }
+        for (ForkJoinTask<?> t : tasks) t.join();
+    }
+
+    ReservationManager property(String propertyId) {
+        return shards.get(propertyId);
+    }
+
+    Set<String> propertyIds() {
+        return new TreeSet<>(shards.keySet());
+    }
+
+    /** Available rooms across all properties, cheapest total first. */
+    List<PropertyOffer> searchAvailable(LocalDate checkIn, LocalDate checkOut, String typeFilter) {
+        List<ForkJoinTask<List<PropertyOffer>>> tasks = new ArrayList<>();
+        for (Map.Entry<String, ReservationManager> e : shards.entrySet()) {
+            String id = e.getKey();
+            ReservationManager m = e.getValue();
+            tasks.add(pool.submit(() -> m.searchAvailable(checkIn, checkOut, typeFilter).stream()
+                    .map(r -> new PropertyOffer(id, r, m.quote(r, checkIn, checkOut)))
+                    .collect(Collectors.toList())));
+        }
+        List<PropertyOffer> merged = new ArrayList<>();
+        for (ForkJoinTask<List<PropertyOffer>> t : tasks) merged.addAll(t.join());
+        merged.sort(Comparator.comparingDouble((PropertyOffer o) -> o.total)
+                .thenComparing(o -> o.propertyId)
+                .thenComparing(o -> o.room.id));
+        return merged;
+    }
+
+    void shutdown() {
+        pool.shutdown();
+    }
+}
+
+class PropertyOffer {
+    final String propertyId;
+    final Room room;
+    final double total;
+
+    PropertyOffer(String propertyId, Room room, double total) {
+        this.propertyId = propertyId;
+        this.room = room;
+        this.total = total;
+    }
+}
+
 class PaymentSimulator {
     private final Random rnd = new Random();
 
@@ -0,0 +1,221 @@
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+
+// Benchmarks and a scaling curve for ReservationManager on synthetic data.
+// The generator writes rooms.csv / reservations.csv with a configurable number of rooms,
+// history size and cancellation ratio; every operation is then measured on a manager
+// loaded from those files. Each benchmark warms up, then reports mean latency,
+// throughput, p50/p99 and bytes allocated per op (from the JVM's per-thread counter).
+// createReservation and cancelReservation include the reservations file rewrite, so
+// they show persistence cost growing with history.
+//
+//   java ReservationBenchmark micro [rooms] [history] [cancelRatio]
+//   java ReservationBenchmark scale [rooms] [maxHistory] [cancelRatio]   (1k, 10k, ... up to maxHistory)
+class ReservationBenchmark {
+    private static final long WARMUP_NANOS = 500_000_000L;
+    private static final long MEASURE_NANOS = 2_000_000_000L;
+    private static final int MIN_OPS = 3;
+    private static final PrintStream NULL_OUT = new PrintStream(OutputStream.nullOutputStream());
+    static volatile long sink; // keeps results alive so the JIT can't drop the work
+
+    interface Op {
+        void run(int i);
+    }
+
+    static class Stats {
+        final String name;
+        final long ops;
+        final double meanNanos;
+        final long p50;
+        final long p99;
+        final double bytesPerOp;
+
+        Stats(String name, long[] latencies, int n, long bytes) {
+            this.name = name;
+            this.ops = n;
+            long[] sorted = Arrays.copyOf(latencies, n);
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long l : sorted) total += l;
+            this.meanNanos = (double) total / n;
+            this.p50 = sorted[(int) Math.ceil(0.50 * n) - 1];
+            this.p99 = sorted[(int) Math.ceil(0.99 * n) - 1];
+            this.bytesPerOp = (double) bytes / n;
+        }
+
+        void print() {
+            System.out.printf("%-22s %8d ops %14s/op %12.0f ops/s  p50 %10s  p99 %10s %14.0f B/op%n",
+                    name, ops, time(meanNanos), 1e9 / meanNanos, time(p50), time(p99), bytesPerOp);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "micro";
+        int rooms = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int history = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        double cancelRatio = args.length > 3 ? Double.parseDouble(args[3]) : 0.1;
+        if (mode.equals("scale")) scale(rooms, history, cancelRatio);
+        else micro(rooms, history, cancelRatio);
+    }
+
+    static void micro(int rooms, int history, double cancelRatio) throws IOException {
+        System.out.printf("--- ReservationManager: %d rooms, %d reservations, %.0f%% cancelled ---%n",
+                rooms, history, cancelRatio * 100);
+        for (Stats s : runAll(rooms, history, cancelRatio)) s.print();
+    }
+
+    static void scale(int rooms, int maxHistory, double cancelRatio) throws IOException {
+        System.out.printf("--- Scaling curve: %d rooms, %.0f%% cancelled (mean latency per op) ---%n", rooms, cancelRatio * 100);
+        System.out.printf("%12s %14s %14s %14s %14s %14s%n", "history", "loadData", "search", "quote", "create", "cancel");
+        for (long h = 1_000; h <= maxHistory; h *= 10) {
+            List<Stats> all = runAll(rooms, (int) h, cancelRatio);
+            System.out.printf("%12d", h);
+            for (Stats s : all) System.out.printf(" %14s", time(s.meanNanos));
+            System.out.println();
+        }
+    }
+
+    // loadData, searchAvailable, quote, createReservation, cancelReservation
+    static List<Stats> runAll(int rooms, int history, double cancelRatio) throws IOException {
+        Path dir = Files.createTempDirectory("resbench");
+        try {
+            Dataset data = generate(dir, rooms, history, cancelRatio);
+            List<Stats> out = new ArrayList<>();
+
+            out.add(bench("loadData", i -> {
+                ReservationManager m = new ReservationManager(data.roomsFile, data.reservationsFile);
+                m.loadData();
+                sink += m.hashCode();
+            }));
+
+            ReservationManager m = new ReservationManager(data.roomsFile, data.reservationsFile);
+            m.loadData();
+            SplittableRandom rnd = new SplittableRandom(42);
+            out.add(bench("searchAvailable", i -> {
+                LocalDate in = data.start.plusDays(rnd.nextInt(data.horizonDays));
+                sink += m.searchAvailable(in, in.plusDays(1 + rnd.nextInt(7)), null).size();
+            }));
+            Room someRoom = m.getRoom("B0");
+            out.add(bench("quote (7 nights)", i -> {
+                LocalDate in = data.start.plusDays(rnd.nextInt(data.horizonDays));
+                sink += (long) m.quote(someRoom, in, in.plusDays(7));
+            }));
+
+            // bookings go past the generated history, one night per room per day, so they always succeed
+            List<String> created = new ArrayList<>();
+            LocalDate future = data.start.plusDays(data.horizonDays + 30);
+            out.add(bench("createReservation", i -> {
+                Room r = m.getRoom("B" + (i % rooms));
+                LocalDate in = future.plusDays(i / rooms);
+                Reservation res = m.createReservation("bench", r, in, in.plusDays(1), 100);
+                if (res != null) created.add(res.id);
+            }));
+            out.add(bench("cancelReservation", i -> {
+                if (i < created.size()) sink += m.cancelReservation(created.get(i)) ? 1 : 0;
+            }, created.size()));
+            return out;
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    static Stats bench(String name, Op op) {
+        return bench(name, op, Integer.MAX_VALUE);
+    }
+
+    // Runs op until the time budget or maxOps is reached (at least MIN_OPS), timing each call.
+    static Stats bench(String name, Op op, int maxOps) {
+        PrintStream out = System.out;
+        System.setOut(NULL_OUT); // manager methods print progress / errors
+        try {
+            int i = 0;
+            long warmEnd = System.nanoTime() + WARMUP_NANOS;
+            while (System.nanoTime() < warmEnd && i < maxOps / 2) op.run(i++);
+
+            long[] lat = new long[1024];
+            int n = 0;
+            long bytes0 = allocatedBytes();
+            long end = System.nanoTime() + MEASURE_NANOS;
+            while ((n < MIN_OPS || System.nanoTime() < end) && i < maxOps) {
+                long t0 = System.nanoTime();
+                op.run(i++);
+                long t = System.nanoTime() - t0;
+                if (n == lat.length) lat = Arrays.copyOf(lat, n * 2);
+                lat[n++] = t;
+            }
+            long bytes = allocatedBytes() - bytes0;
+            return new Stats(name, lat, Math.max(n, 1), bytes);
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    static class Dataset {
+        String roomsFile;
+        String reservationsFile;
+        LocalDate start;
+        int horizonDays;
+    }
+
+    // Rooms B0..B{rooms-1}; reservations are spread evenly across rooms and laid end to end
+    // with random gaps, so each room's history is non-overlapping like real bookings.
+    static Dataset generate(Path dir, int rooms, int history, double cancelRatio) throws IOException {
+        String[] types = {"Standard", "Deluxe", "Suite"};
+        double[] prices = {3000, 4500, 9000};
+        Dataset d = new Dataset();
+        d.roomsFile = dir.resolve("rooms.csv").toString();
+        d.reservationsFile = dir.resolve("reservations.csv").toString();
+        d.start = LocalDate.now().minusDays(30);
+
+        try (BufferedWriter w = Files.newBufferedWriter(Paths.get(d.roomsFile))) {
+            for (int r = 0; r < rooms; r++) {
+                w.write(new Room("B" + r, types[r % 3], prices[r % 3]).toCsv());
+                w.newLine();
+            }
+        }
+        SplittableRandom rnd = new SplittableRandom(7);
+        long[] cursor = new long[rooms];
+        Arrays.fill(cursor, d.start.toEpochDay());
+        long maxDay = d.start.toEpochDay();
+        try (BufferedWriter w = Files.newBufferedWriter(Paths.get(d.reservationsFile))) {
+            for (int i = 0; i < history; i++) {
+                int r = i % rooms;
+                long in = cursor[r] + rnd.nextInt(3);
+                long out = in + 1 + rnd.nextInt(5);
+                cursor[r] = out;
+                maxDay = Math.max(maxDay, out);
+                String status = rnd.nextDouble() < cancelRatio ? "CANCELLED" : "ACTIVE";
+                Reservation res = new Reservation("res-" + i, "guest" + (i % 5000), "B" + r, types[r % 3],
+                        LocalDate.ofEpochDay(in), LocalDate.ofEpochDay(out), prices[r % 3] * (out - in), status);
+                w.write(res.toCsv());
+                w.newLine();
+            }
+        }
+        d.horizonDays = (int) Math.max(1, maxDay - d.start.toEpochDay());
+        return d;
+    }
+
+    private static String time(double nanos) {
+        if (nanos < 10_000) return String.format("%.0f ns", nanos);
+        if (nanos < 10_000_000) return String.format("%.1f us", nanos / 1e3);
+        return String.format("%.1f ms", nanos / 1e6);
+    }
+
+    private static void deleteTree(Path dir) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path f : files) Files.deleteIfExists(f);
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    private static long allocatedBytes() {
+        return threadBean().getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        return (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+}
@@ -0,0 +1,312 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Headless HTTP/JSON front end for one shared ReservationManager.
+ * Every request runs on its own virtual thread, so slow clients and the
+ * reservation file writes never tie up a fixed worker pool; the manager guards its
+ * state with a ReentrantLock rather than a monitor, so threads waiting on it unmount.
+ * Stays must lie between today and the pricing horizon.
+ *
+ *   GET    /rooms?checkIn=YYYY-MM-DD&checkOut=YYYY-MM-DD[&type=Suite]
+ *   POST   /reservations        {"guest":..,"roomId":..,"checkIn":..,"checkOut":..[,"card":..]}
+ *   GET    /reservations/{id}
+ *   GET    /reservations?guest=name
+ *   DELETE /reservations/{id}
+ */
+public class ReservationService {
+    private static final String ROOMS_FILE = "rooms.csv";
+    private static final String RESERVATIONS_FILE = "reservations.csv";
+
+    private final ReservationManager manager;
+    private final HttpServer server;
+
+    ReservationService(ReservationManager manager, int port) throws IOException {
+        this.manager = manager;
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.createContext("/rooms", this::handleRooms);
+        server.createContext("/reservations", this::handleReservations);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    void start() {
+        server.start();
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        ReservationManager manager = new ReservationManager(ROOMS_FILE, RESERVATIONS_FILE);
+        manager.loadData();
+        ReservationService service = new ReservationService(manager, port);
+        service.start();
+        System.out.println("Reservation service listening on http://localhost:" + service.port());
+    }
+
+    private void handleRooms(HttpExchange ex) throws IOException {
+        try {
+            if (!ex.getRequestMethod().equals("GET")) {
+                send(ex, 405, error("method not allowed"));
+                return;
+            }
+            Map<String, String> q = query(ex);
+            LocalDate checkIn = LocalDate.parse(required(q, "checkIn"));
+            LocalDate checkOut = LocalDate.parse(required(q, "checkOut"));
+            manager.checkStay(checkIn, checkOut);
+            List<Room> avail = manager.searchAvailable(checkIn, checkOut, q.get("type"));
+            StringBuilder sb = new StringBuilder("{\"rooms\":[");
+            for (int i = 0; i < avail.size(); i++) {
+                Room r = avail.get(i);
+                if (i > 0) sb.append(',');
+                sb.append("{\"id\":").append(quote(r.id))
+                        .append(",\"type\":").append(quote(r.type))
+                        .append(",\"total\":").append(manager.quote(r, checkIn, checkOut))
+                        .append('}');
+            }
+            send(ex, 200, sb.append("]}").toString());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            send(ex, 400, error(e.getMessage()));
+        }
+    }
+
+    private void handleReservations(HttpExchange ex) throws IOException {
+        try {
+            String path = ex.getRequestURI().getPath();
+            String id = path.length() > "/reservations/".length() ? path.substring("/reservations/".length()) : null;
+            switch (ex.getRequestMethod()) {
+                case "POST":
+                    if (id != null) send(ex, 405, error("method not allowed"));
+                    else book(ex);
+                    break;
+                case "GET":
+                    if (id != null) lookup(ex, id);
+                    else byGuest(ex);
+                    break;
+                case "DELETE":
+                    if (id == null) send(ex, 405, error("method not allowed"));
+                    else if (manager.cancelReservation(id)) send(ex, 200, toJson(manager.getReservation(id)));
+                    else send(ex, 404, error("reservation not found or already cancelled"));
+                    break;
+                default:
+                    send(ex, 405, error("method not allowed"));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            send(ex, 400, error(e.getMessage()));
+        }
+    }
+
+    private void book(HttpExchange ex) throws IOException {
+        Map<String, String> body = parseObject(readBody(ex));
+        String guest = required(body, "guest");
+        if (!Reservation.isValidGuestName(guest)) {
+            send(ex, 400, error("guest must not contain commas or line breaks"));
+            return;
+        }
+        Room room = manager.getRoom(required(body, "roomId"));
+        if (room == null) {
+            send(ex, 404, error("unknown room"));
+            return;
+        }
+        LocalDate checkIn = LocalDate.parse(required(body, "checkIn"));
+        LocalDate checkOut = LocalDate.parse(required(body, "checkOut"));
+        manager.checkStay(checkIn, checkOut);
+        // hold -> charge -> confirm: the room and its price are fixed before any money moves
+        Reservation res = manager.holdReservation(guest, room, checkIn, checkOut);
+        if (res == null) {
+            send(ex, 409, error("room is no longer available"));
+            return;
+        }
+        boolean confirmed = false;
+        try {
+            // kiosks take payment here; web clients that settle elsewhere omit the card
+            String card = body.get("card");
+            if (card != null && !new PaymentSimulator().processPayment(card, res.totalPrice)) {
+                send(ex, 402, error("payment declined"));
+                return;
+            }
+            confirmed = manager.confirmHold(res.id);
+        } finally {
+            if (!confirmed) manager.releaseHold(res.id);
+        }
+        send(ex, 201, toJson(res));
+    }
+
+    private void lookup(HttpExchange ex, String id) throws IOException {
+        Reservation r = manager.getReservation(id);
+        if (r == null) send(ex, 404, error("no reservation with that id"));
+        else send(ex, 200, toJson(r));
+    }
+
+    private void byGuest(HttpExchange ex) throws IOException {
+        List<Reservation> list = manager.reservationsByGuest(required(query(ex), "guest"));
+        StringBuilder sb = new StringBuilder("{\"reservations\":[");
+        for (int i = 0; i < list.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(toJson(list.get(i)));
+        }
+        send(ex, 200, sb.append("]}").toString());
+    }
+
+    private static String toJson(Reservation r) {
+        return "{\"id\":" + quote(r.id)
+                + ",\"guest\":" + quote(r.guestName)
+                + ",\"roomId\":" + quote(r.roomId)
+                + ",\"roomType\":" + quote(r.roomType)
+                + ",\"checkIn\":" + quote(r.checkIn.toString())
+                + ",\"checkOut\":" + quote(r.checkOut.toString())
+                + ",\"total\":" + r.totalPrice
+                + ",\"status\":" + quote(r.status) + "}";
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + quote(message == null ? "bad request" : message) + "}";
+    }
+
+    private static void send(HttpExchange ex, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String readBody(HttpExchange ex) throws IOException {
+        try (InputStream in = ex.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String required(Map<String, String> fields, String name) {
+        String v = fields.get(name);
+        if (v == null || v.isEmpty()) throw new IllegalArgumentException("missing " + name);
+        return v;
+    }
+
+    private static Map<String, String> query(HttpExchange ex) {
+        Map<String, String> out = new HashMap<>();
+        String raw = ex.getRequestURI().getRawQuery();
+        if (raw == null) return out;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            out.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return out;
+    }
+
+    static String quote(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    // Flat JSON object of string / number / boolean values; nested values are rejected.
+    static Map<String, String> parseObject(String json) {
+        Map<String, String> out = new HashMap<>();
+        int[] pos = {skip(json, 0)};
+        expect(json, pos, '{');
+        if (peek(json, pos) == '}') return out;
+        while (true) {
+            String key = parseString(json, pos);
+            expect(json, pos, ':');
+            char c = peek(json, pos);
+            String value;
+            if (c == '"') {
+                value = parseString(json, pos);
+            } else if (c == '{' || c == '[') {
+                throw new IllegalArgumentException("nested values are not supported");
+            } else {
+                int start = pos[0];
+                while (pos[0] < json.length() && ",} \t\r\n".indexOf(json.charAt(pos[0])) < 0) pos[0]++;
+                value = json.substring(start, pos[0]);
+                if (value.equals("null")) value = null;
+            }
+            if (value != null) out.put(key, value);
+            if (peek(json, pos) == ',') {
+                pos[0]++;
+                continue;
+            }
+            expect(json, pos, '}');
+            return out;
+        }
+    }
+
+    private static String parseString(String json, int[] pos) {
+        expect(json, pos, '"');
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            if (pos[0] >= json.length()) throw new IllegalArgumentException("unterminated string");
+            char c = json.charAt(pos[0]++);
+            if (c == '"') return sb.toString();
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos[0] >= json.length()) throw new IllegalArgumentException("unterminated string");
+            char e = json.charAt(pos[0]++);
+            switch (e) {
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'u':
+                    if (pos[0] + 4 > json.length()) throw new IllegalArgumentException("bad escape");
+                    sb.append((char) Integer.parseInt(json.substring(pos[0], pos[0] + 4), 16));
+                    pos[0] += 4;
+                    break;
+                default: sb.append(e);
+            }
+        }
+    }
+
+    private static char peek(String json, int[] pos) {
+        pos[0] = skip(json, pos[0]);
+        if (pos[0] >= json.length()) throw new IllegalArgumentException("unexpected end of JSON");
+        return json.charAt(pos[0]);
+    }
+
+    private static void expect(String json, int[] pos, char c) {
+        if (peek(json, pos) != c) throw new IllegalArgumentException("expected '" + c + "' at " + pos[0]);
+        pos[0]++;
+    }
+
+    private static int skip(String json, int i) {
+        while (i < json.length() && Character.isWhitespace(json.charAt(i))) i++;
+        return i;
+    }
+}
@@ -0,0 +1,138 @@
+import java.util.*;
+
+// Many portfolios in struct-of-arrays form: cash per account in long cents, and every
+// (account, symbol) position as one slot in parallel primitive arrays found through a
+// single open-addressing index. Mark-to-market is one linear pass over the slots.
+// Not thread-safe: drive it from one thread (or one engine per partition of accounts).
+class AccountEngine {
+    private final SymbolTable symbols;
+    private long[] cashCents;
+    private int accounts;
+
+    private final LongIntHashMap slotIndex;
+    private int[] slotAccount;
+    private int[] slotSymbol;
+    private long[] slotQty;
+    private int slots;
+    private PreTradeRisk risk; // optional; account ids double as risk account ids
+    private long[] referenceCents; // optional price-band reference per symbol id
+
+    AccountEngine(SymbolTable symbols, int expectedAccounts, int expectedPositions) {
+        this.symbols = symbols;
+        cashCents = new long[Math.max(16, expectedAccounts)];
+        slotIndex = new LongIntHashMap(Math.max(16, expectedPositions));
+        slotAccount = new int[Math.max(16, expectedPositions)];
+        slotSymbol = new int[slotAccount.length];
+        slotQty = new long[slotAccount.length];
+    }
+
+    void setPreTradeRisk(PreTradeRisk risk) {
+        this.risk = risk;
+    }
+
+    // Market prices the risk gate compares order prices against, indexed by symbol id
+    // (e.g. from StockMarket.priceCents); refresh the array in place as the market moves
+    void setReferencePrices(long[] priceCents) {
+        this.referenceCents = priceCents;
+    }
+
+    int openAccount(long startingCashCents) {
+        if (accounts == cashCents.length) cashCents = Arrays.copyOf(cashCents, accounts * 2);
+        cashCents[accounts] = startingCashCents;
+        return accounts++;
+    }
+
+    int accountCount() {
+        return accounts;
+    }
+
+    long cashCents(int account) {
+        return cashCents[account];
+    }
+
+    long position(int account, int symbolId) {
+        int slot = slotIndex.get(key(account, symbolId), -1);
+        return slot < 0 ? 0 : slotQty[slot];
+    }
+
+    boolean buy(int account, int symbolId, long qty, long priceCents) {
+        if (qty <= 0) return false;
+        long cost;
+        try {
+            cost = Math.multiplyExact(qty, priceCents);
+        } catch (ArithmeticException e) {
+            return false; // no account holds that much cash
+        }
+        if (cost > cashCents[account]) return false;
+        if (risk != null && risk.check(account, symbolId, true, qty, priceCents, reference(symbolId), position(account, symbolId)) != PreTradeRisk.OK) {
+            return false;
+        }
+        cashCents[account] -= cost;
+        slotQty[slotFor(account, symbolId)] += qty;
+        return true;
+    }
+
+    boolean sell(int account, int symbolId, long qty, long priceCents) {
+        int slot = slotIndex.get(key(account, symbolId), -1);
+        if (qty <= 0 || slot < 0 || slotQty[slot] < qty) return false;
+        if (risk != null && risk.check(account, symbolId, false, qty, priceCents, reference(symbolId), slotQty[slot]) != PreTradeRisk.OK) {
+            return false;
+        }
+        slotQty[slot] -= qty;
+        cashCents[account] += qty * priceCents;
+        return true;
+    }
+
+    private long reference(int symbolId) {
+        return referenceCents != null && symbolId < referenceCents.length ? referenceCents[symbolId] : 0;
+    }
+
+    // out[a] = cash + sum(qty * price) for every account; priceCents is indexed by symbol id
+    void markToMarket(long[] priceCents, long[] out) {
+        System.arraycopy(cashCents, 0, out, 0, accounts);
+        int[] acc = slotAccount;
+        int[] sym = slotSymbol;
+        long[] qty = slotQty;
+        for (int i = 0; i < slots; i++) {
+            out[acc[i]] += qty[i] * priceCents[sym[i]];
+        }
+    }
+
+    // Same layout as UserPortfolio.displayPortfolio, for one account
+    void displayAccount(int account, long[] priceCents) {
+        System.out.println("\n--- Portfolio Summary (account " + account + ") ---");
+        long total = cashCents[account];
+        for (int symbolId = 0; symbolId < symbols.size(); symbolId++) {
+            int slot = slotIndex.get(key(account, symbolId), -1);
+            if (slot < 0 || slotQty[slot] == 0) continue;
+            long value = slotQty[slot] * priceCents[symbolId];
+            System.out.println(symbols.symbol(symbolId) + " | Qty: " + slotQty[slot]
+                    + " | Price: $" + StockMarket.fromTicks(priceCents[symbolId])
+                    + " | Value: $" + StockMarket.fromTicks(value));
+            total += value;
+        }
+        System.out.println("Cash Balance: $" + StockMarket.fromTicks(cashCents[account]));
+        System.out.println("Total Portfolio Value: $" + StockMarket.fromTicks(total));
+    }
+
+    private int slotFor(int account, int symbolId) {
+        long key = key(account, symbolId);
+        int slot = slotIndex.get(key, -1);
+        if (slot >= 0) return slot;
+        if (slots == slotAccount.length) {
+            int cap = slots * 2;
+            slotAccount = Arrays.copyOf(slotAccount, cap);
+            slotSymbol = Arrays.copyOf(slotSymbol, cap);
+            slotQty = Arrays.copyOf(slotQty, cap);
+        }
+        slot = slots++;
+        slotAccount[slot] = account;
+        slotSymbol[slot] = symbolId;
+        slotIndex.put(key, slot);
+        return slot;
+    }
+
+    private static long key(int account, int symbolId) {
+        return ((long) account << 32) | (symbolId & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,71 @@
+import java.io.IOException;
+import java.util.*;
+
+// Immutable price event stream shared read-only by every run of a sweep
+class BacktestData {
+    final String[] symbols;
+    final int[] symbolIds;
+    final long[] times;     // nanos on the trading-time clock (see GbmModel), non-decreasing
+    final double[] prices;
+    final double[] initialPrices;
+
+    BacktestData(String[] symbols, int[] symbolIds, long[] times, double[] prices) {
+        this.symbols = symbols;
+        this.symbolIds = symbolIds;
+        this.times = times;
+        this.prices = prices;
+        this.initialPrices = new double[symbols.length];
+        boolean[] seen = new boolean[symbols.length];
+        for (int i = 0; i < symbolIds.length; i++) {
+            if (!seen[symbolIds[i]]) {
+                seen[symbolIds[i]] = true;
+                initialPrices[symbolIds[i]] = prices[i];
+            }
+        }
+    }
+
+    int size() {
+        return times.length;
+    }
+
+    static BacktestData fromTickFile(TickFileReader reader) throws IOException {
+        int n = (int) Math.min(Integer.MAX_VALUE - 8, reader.recordCount());
+        String[] symbols = new String[reader.symbolCount()];
+        for (int i = 0; i < symbols.length; i++) symbols[i] = reader.symbol(i);
+        int[] ids = new int[n];
+        long[] times = new long[n];
+        double[] prices = new double[n];
+        int[] k = {0};
+        reader.forEach((symbolId, epochNanos, priceTicks, volume) -> {
+            int i = k[0];
+            if (i >= n) return;
+            ids[i] = symbolId;
+            times[i] = epochNanos;
+            prices[i] = StockMarket.fromTicks(priceTicks);
+            k[0]++;
+        });
+        return new BacktestData(symbols, ids, times, prices);
+    }
+
+    // Synthetic data: every symbol steps once per period with the given model
+    static BacktestData simulate(String[] symbols, double[] startPrices, PriceModel model,
+                                 int steps, long periodNanos, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        int n = steps * symbols.length;
+        int[] ids = new int[n];
+        long[] times = new long[n];
+        double[] prices = new double[n];
+        double[] p = startPrices.clone();
+        int k = 0;
+        for (int step = 0; step < steps; step++) {
+            for (int s = 0; s < symbols.length; s++) {
+                if (step > 0) p[s] = model.next(p[s], periodNanos / 1e9, rnd);
+                ids[k] = s;
+                times[k] = step * periodNanos;
+                prices[k] = p[s];
+                k++;
+            }
+        }
+        return new BacktestData(symbols, ids, times, prices);
+    }
+}
@@ -0,0 +1,127 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+// Headless backtester: replays BacktestData through one Strategy per parameter set,
+// each with its own UserPortfolio and Stock copies, split across a fork-join pool.
+// Data timestamps and the sample period are on the same trading-time clock as GbmModel,
+// so returns are annualized over 252 sessions of 6.5h.
+class BacktestEngine {
+    private static final long NANOS_PER_YEAR = GbmModel.TRADING_DAYS_PER_YEAR * GbmModel.NANOS_PER_TRADING_DAY;
+    private static final int LEAF_RUNS = 4;
+
+    private final ForkJoinPool pool;
+    private final double startingBalance;
+    private final long samplePeriodNanos; // equity sampling period for returns / Sharpe
+
+    BacktestEngine(ForkJoinPool pool, double startingBalance, long samplePeriodNanos) {
+        this.pool = pool;
+        this.startingBalance = startingBalance;
+        this.samplePeriodNanos = samplePeriodNanos;
+    }
+
+    <P> List<BacktestResult> sweep(BacktestData data, List<P> params, Function<P, Strategy> factory) {
+        BacktestResult[] out = new BacktestResult[params.size()];
+        pool.invoke(new SweepTask<>(data, params, factory, out, 0, params.size()));
+        return Arrays.asList(out);
+    }
+
+    BacktestResult run(BacktestData data, Object params, Strategy strategy) {
+        Stock[] stocks = new Stock[data.symbols.length];
+        for (int i = 0; i < stocks.length; i++) stocks[i] = new Stock(data.symbols[i], data.initialPrices[i]);
+        UserPortfolio portfolio = new UserPortfolio(startingBalance);
+        portfolio.setVerbose(false);
+        StrategyContext ctx = new StrategyContext(portfolio, stocks);
+        strategy.onStart(ctx);
+
+        double peak = startingBalance;
+        double maxDrawdown = 0;
+        double lastSample = startingBalance;
+        long nextSample = data.size() > 0 ? data.times[0] + samplePeriodNanos : 0;
+        // running mean/variance of period returns (Welford)
+        long samples = 0;
+        double mean = 0, m2 = 0;
+
+        for (int i = 0; i < data.size(); i++) {
+            long t = data.times[i];
+            if (t >= nextSample) {
+                double equity = ctx.equity();
+                if (equity > peak) peak = equity;
+                if (peak > 0) maxDrawdown = Math.max(maxDrawdown, (peak - equity) / peak);
+                double r = lastSample > 0 ? equity / lastSample - 1 : 0;
+                samples++;
+                double d = r - mean;
+                mean += d / samples;
+                m2 += d * (r - mean);
+                lastSample = equity;
+                while (nextSample <= t) nextSample += samplePeriodNanos;
+            }
+            int s = data.symbolIds[i];
+            stocks[s].setPrice(data.prices[i]);
+            strategy.onPrice(ctx, s, t, data.prices[i]);
+        }
+
+        double finalValue = ctx.equity();
+        if (peak > 0) maxDrawdown = Math.max(maxDrawdown, (Math.max(peak, finalValue) - finalValue) / Math.max(peak, finalValue));
+        double std = samples > 1 ? Math.sqrt(m2 / (samples - 1)) : 0;
+        double sharpe = std > 0 ? mean / std * Math.sqrt((double) NANOS_PER_YEAR / samplePeriodNanos) : 0;
+        return new BacktestResult(params, startingBalance, finalValue, maxDrawdown, sharpe, ctx.trades());
+    }
+
+    private class SweepTask<P> extends RecursiveAction {
+        private final BacktestData data;
+        private final List<P> params;
+        private final Function<P, Strategy> factory;
+        private final BacktestResult[] out;
+        private final int from;
+        private final int to;
+
+        SweepTask(BacktestData data, List<P> params, Function<P, Strategy> factory, BacktestResult[] out, int from, int to) {
+            this.data = data;
+            this.params = params;
+            this.factory = factory;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_RUNS) {
+                for (int i = from; i < to; i++) {
+                    P p = params.get(i);
+                    out[i] = run(data, p, factory.apply(p));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SweepTask<>(data, params, factory, out, from, mid),
+                    new SweepTask<>(data, params, factory, out, mid, to));
+        }
+    }
+
+    // Example sweep: SMA crossover over synthetic GBM prices, one step per trading day, for the default tickers
+    public static void main(String[] args) {
+        String[] symbols = {"AAPL", "GOOG", "TSLA", "AMZN"};
+        double[] start = {150.0, 2800.0, 700.0, 3300.0};
+        long day = GbmModel.NANOS_PER_TRADING_DAY;
+        BacktestData data = BacktestData.simulate(symbols, start, new GbmModel(0.08, 0.35), 252 * 5, day, 42);
+
+        List<int[]> grid = new ArrayList<>();
+        for (int fast = 2; fast <= 50; fast++) {
+            for (int slow = fast + 5; slow <= 200; slow += 5) grid.add(new int[]{fast, slow});
+        }
+        BacktestEngine engine = new BacktestEngine(ForkJoinPool.commonPool(), 100_000.0, day);
+        long t0 = System.nanoTime();
+        List<BacktestResult> results = engine.sweep(data, grid, p -> new MovingAverageCrossStrategy(p[0], p[1], 5));
+        long ms = (System.nanoTime() - t0) / 1_000_000;
+
+        List<BacktestResult> ranked = new ArrayList<>(results);
+        ranked.sort(Comparator.comparingDouble((BacktestResult r) -> r.sharpe).reversed());
+        System.out.println("Ran " + results.size() + " backtests in " + ms + " ms");
+        for (int i = 0; i < Math.min(10, ranked.size()); i++) {
+            int[] p = (int[]) ranked.get(i).params;
+            System.out.println("fast=" + p[0] + " slow=" + p[1] + " | " + ranked.get(i));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+class BacktestResult {
+    final Object params; // the sweep element this run was built from
+    final double startValue;
+    final double finalValue;
+    final double maxDrawdown; // fraction of peak equity
+    final double sharpe;      // annualized, on per-period equity returns
+    final int trades;
+
+    BacktestResult(Object params, double startValue, double finalValue, double maxDrawdown, double sharpe, int trades) {
+        this.params = params;
+        this.startValue = startValue;
+        this.finalValue = finalValue;
+        this.maxDrawdown = maxDrawdown;
+        this.sharpe = sharpe;
+        this.trades = trades;
+    }
+
+    double pnl() {
+        return finalValue - startValue;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("P&L: $%.2f | Max DD: %.2f%% | Sharpe: %.2f | Trades: %d",
+                pnl(), maxDrawdown * 100, sharpe, trades);
+    }
+}
@@ -0,0 +1,75 @@
+import java.util.*;
+import java.util.function.Supplier;
+
+// Builds OHLCV bars at several intervals for every symbol from a tick stream.
+// Symbol ids are this aggregator's SymbolTable ids; use forFile() to feed a tick replay.
+// Single-threaded: feed it from one thread (e.g. the replayer or a feed subscriber).
+class BarAggregator implements TickListener {
+    static final long SECOND = 1_000_000_000L;
+    static final long MINUTE = 60 * SECOND;
+    static final long HOUR = 60 * MINUTE;
+
+    private final SymbolTable symbols;
+    private final long[] intervals;
+    private final int capacity;
+    private final List<Map.Entry<Long, Supplier<Indicator>>> indicatorFactories = new ArrayList<>();
+    private BarSeries[][] series = new BarSeries[16][]; // [symbolId][interval index]
+
+    BarAggregator(SymbolTable symbols, int capacity, long... intervals) {
+        this.symbols = symbols;
+        this.capacity = capacity;
+        this.intervals = intervals.clone();
+    }
+
+    // attaches a fresh indicator to every series of that interval (existing and future)
+    void addIndicator(long intervalNanos, Supplier<Indicator> factory) {
+        indicatorFactories.add(new AbstractMap.SimpleEntry<>(intervalNanos, factory));
+        for (BarSeries[] perSymbol : series) {
+            if (perSymbol == null) continue;
+            for (BarSeries s : perSymbol) {
+                if (s.intervalNanos() == intervalNanos) s.addIndicator(factory.get());
+            }
+        }
+    }
+
+    @Override
+    public void onTick(int symbolId, long epochNanos, long priceTicks, long volume) {
+        BarSeries[] perSymbol = symbolId < series.length ? series[symbolId] : null;
+        if (perSymbol == null) perSymbol = create(symbolId);
+        for (BarSeries s : perSymbol) s.onTick(epochNanos, priceTicks, volume);
+    }
+
+    void onTick(String symbol, long epochNanos, double price, long volume) {
+        onTick(symbols.intern(symbol), epochNanos, StockMarket.toTicks(price), volume);
+    }
+
+    // null if the symbol has not traded or the interval is not configured
+    BarSeries series(String symbol, long intervalNanos) {
+        int id = symbols.idOf(symbol);
+        if (id < 0 || id >= series.length || series[id] == null) return null;
+        for (BarSeries s : series[id]) {
+            if (s.intervalNanos() == intervalNanos) return s;
+        }
+        return null;
+    }
+
+    // Adapter translating a tick file's symbol ids into this aggregator's ids
+    TickListener forFile(TickFileReader reader) {
+        int[] map = new int[reader.symbolCount()];
+        for (int i = 0; i < map.length; i++) map[i] = symbols.intern(reader.symbol(i));
+        return (symbolId, epochNanos, priceTicks, volume) -> onTick(map[symbolId], epochNanos, priceTicks, volume);
+    }
+
+    private BarSeries[] create(int symbolId) {
+        if (symbolId >= series.length) series = Arrays.copyOf(series, Math.max(symbolId + 1, series.length * 2));
+        BarSeries[] perSymbol = new BarSeries[intervals.length];
+        for (int i = 0; i < intervals.length; i++) {
+            perSymbol[i] = new BarSeries(intervals[i], capacity);
+            for (Map.Entry<Long, Supplier<Indicator>> f : indicatorFactories) {
+                if (f.getKey() == intervals[i]) perSymbol[i].addIndicator(f.getValue().get());
+            }
+        }
+        series[symbolId] = perSymbol;
+        return perSymbol;
+    }
+}
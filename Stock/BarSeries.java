@@ -0,0 +1,135 @@
+// OHLCV bars of one symbol at one interval, kept in fixed-size rings of primitive arrays.
+// The forming bar is updated in place per tick; when a tick lands in a later interval the
+// bar is closed, appended to the ring and pushed through the attached indicators.
+class BarSeries {
+    private final long intervalNanos;
+    private final int capacity;
+    private final long[] start;
+    private final long[] open;
+    private final long[] high;
+    private final long[] low;
+    private final long[] close;
+    private final long[] volume;
+    private long completed; // total bars closed so far
+    private Indicator[] indicators = new Indicator[0];
+
+    // forming bar
+    private long curStart = Long.MIN_VALUE;
+    private long curOpen, curHigh, curLow, curClose, curVolume;
+
+    BarSeries(long intervalNanos, int capacity) {
+        this.intervalNanos = intervalNanos;
+        this.capacity = capacity;
+        start = new long[capacity];
+        open = new long[capacity];
+        high = new long[capacity];
+        low = new long[capacity];
+        close = new long[capacity];
+        volume = new long[capacity];
+    }
+
+    void addIndicator(Indicator indicator) {
+        Indicator[] next = java.util.Arrays.copyOf(indicators, indicators.length + 1);
+        next[indicators.length] = indicator;
+        indicators = next;
+    }
+
+    Indicator[] indicators() {
+        return indicators;
+    }
+
+    long intervalNanos() {
+        return intervalNanos;
+    }
+
+    void onTick(long epochNanos, long priceTicks, long qty) {
+        long bucket = epochNanos - Math.floorMod(epochNanos, intervalNanos);
+        if (bucket != curStart) {
+            if (curStart != Long.MIN_VALUE) {
+                if (bucket < curStart) return; // late tick for an already closed bar
+                closeBar();
+            }
+            curStart = bucket;
+            curOpen = curHigh = curLow = curClose = priceTicks;
+            curVolume = qty;
+            return;
+        }
+        if (priceTicks > curHigh) curHigh = priceTicks;
+        if (priceTicks < curLow) curLow = priceTicks;
+        curClose = priceTicks;
+        curVolume += qty;
+    }
+
+    private void closeBar() {
+        int i = (int) (completed % capacity);
+        start[i] = curStart;
+        open[i] = curOpen;
+        high[i] = curHigh;
+        low[i] = curLow;
+        close[i] = curClose;
+        volume[i] = curVolume;
+        completed++;
+        double c = StockMarket.fromTicks(curClose);
+        double typical = StockMarket.fromTicks(curHigh + curLow + curClose) / 3;
+        for (Indicator ind : indicators) ind.onBar(c, typical, curVolume);
+    }
+
+    // number of closed bars still held in the ring
+    int size() {
+        return (int) Math.min(completed, capacity);
+    }
+
+    boolean hasFormingBar() {
+        return curStart != Long.MIN_VALUE;
+    }
+
+    // accessors take 'ago': 0 = most recent closed bar, size()-1 = oldest retained
+    long start(int ago) {
+        return start[slot(ago)];
+    }
+
+    double open(int ago) {
+        return StockMarket.fromTicks(open[slot(ago)]);
+    }
+
+    double high(int ago) {
+        return StockMarket.fromTicks(high[slot(ago)]);
+    }
+
+    double low(int ago) {
+        return StockMarket.fromTicks(low[slot(ago)]);
+    }
+
+    double close(int ago) {
+        return StockMarket.fromTicks(close[slot(ago)]);
+    }
+
+    long volume(int ago) {
+        return volume[slot(ago)];
+    }
+
+    double formingOpen() {
+        return StockMarket.fromTicks(curOpen);
+    }
+
+    double formingHigh() {
+        return StockMarket.fromTicks(curHigh);
+    }
+
+    double formingLow() {
+        return StockMarket.fromTicks(curLow);
+    }
+
+    double formingClose() {
+        return StockMarket.fromTicks(curClose);
+    }
+
+    long formingVolume() {
+        return curVolume;
+    }
+
+    private int slot(int ago) {
+        if (ago < 0 || ago >= size()) throw new IndexOutOfBoundsException("bar " + ago + " of " + size());
+        return (int) ((completed - 1 - ago) % capacity);
+    }
+}
@@ -0,0 +1,32 @@
+// Seeded with the SMA of the first 'period' closes
+class EmaIndicator implements Indicator {
+    private final int period;
+    private final double alpha;
+    private double ema;
+    private double seedSum;
+    private long count;
+
+    EmaIndicator(int period) {
+        this.period = period;
+        this.alpha = 2.0 / (period + 1);
+    }
+
+    public String name() {
+        return "EMA(" + period + ")";
+    }
+
+    public void onBar(double close, double typicalPrice, long volume) {
+        count++;
+        if (count < period) {
+            seedSum += close;
+        } else if (count == period) {
+            ema = (seedSum + close) / period;
+        } else {
+            ema += alpha * (close - ema);
+        }
+    }
+
+    public double value() {
+        return count < period ? Double.NaN : ema;
+    }
+}
@@ -0,0 +1,24 @@
+import java.util.SplittableRandom;
+
+// Geometric Brownian motion with annualized drift and volatility (252 trading days of 6.5h).
+// Simulated time is trading time: a day is one 6.5h session, with no overnight or weekend gaps.
+class GbmModel implements PriceModel {
+    static final int TRADING_DAYS_PER_YEAR = 252;
+    static final long NANOS_PER_TRADING_DAY = 23_400L * 1_000_000_000L; // 6.5h
+    static final double SECONDS_PER_TRADING_YEAR = TRADING_DAYS_PER_YEAR * NANOS_PER_TRADING_DAY / 1e9;
+
+    private final double drift;
+    private final double volatility;
+
+    GbmModel(double drift, double volatility) {
+        this.drift = drift;
+        this.volatility = volatility;
+    }
+
+    @Override
+    public double next(double price, double dtSeconds, SplittableRandom rnd) {
+        double dt = dtSeconds / SECONDS_PER_TRADING_YEAR;
+        return price * Math.exp((drift - 0.5 * volatility * volatility) * dt
+                + volatility * Math.sqrt(dt) * rnd.nextGaussian());
+    }
+}
@@ -0,0 +1,9 @@
+// Incremental indicator over completed bars of one BarSeries: O(1) work per bar
+interface Indicator {
+    String name();
+
+    void onBar(double close, double typicalPrice, long volume);
+
+    // NaN until enough bars have been seen
+    double value();
+}
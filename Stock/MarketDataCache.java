@@ -0,0 +1,180 @@
+import java.io.*;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+// Listed instruments by dense symbol id. Prices live in flat double pages indexed by id
+// (pages never move, so growth never loses a concurrent price write); Stock objects
+// created here read and write their price through the cache. Symbol resolution goes
+// through SymbolTable and allocates nothing; prefix search uses sorted arrays rebuilt
+// lazily after listings change.
+class MarketDataCache {
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final VarHandle PRICE = MethodHandles.arrayElementVarHandle(double[].class);
+
+    private final SymbolTable symbols = new SymbolTable();
+    private volatile double[][] pricePages = new double[0][];
+    private volatile Stock[] stocks = new Stock[64];
+    private volatile String[] names = new String[64];
+    private volatile SearchIndex symbolIndex;
+    private volatile SearchIndex nameIndex;
+
+    // Lists the instrument if new and returns its Stock; an existing listing is returned unchanged
+    synchronized Stock list(String symbol, double price, String name) {
+        int id = symbols.idOf(symbol);
+        if (id >= 0) return stocks[id];
+        id = symbols.size();
+        if (id >> PAGE_BITS >= pricePages.length) {
+            double[][] pages = Arrays.copyOf(pricePages, pricePages.length + 1);
+            pages[pages.length - 1] = new double[PAGE_SIZE];
+            pricePages = pages;
+        }
+        if (id == stocks.length) {
+            stocks = Arrays.copyOf(stocks, id * 2);
+            names = Arrays.copyOf(names, id * 2);
+        }
+        setPrice(id, price);
+        Stock stock = new Stock(symbol.toUpperCase(Locale.ROOT), id, this);
+        stocks[id] = stock;
+        names[id] = name;
+        symbols.intern(symbol); // publishes the id to lock-free readers last
+        symbolIndex = null;
+        nameIndex = null;
+        return stock;
+    }
+
+    // CSV rows: symbol,price[,name]; header and malformed rows are skipped. Returns rows listed.
+    int load(Path file) throws IOException {
+        int listed = 0;
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] p = line.split(",", 3);
+                if (p.length < 2 || p[0].trim().isEmpty()) continue;
+                double price;
+                try {
+                    price = Double.parseDouble(p[1].trim());
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                list(p[0].trim(), price, p.length > 2 ? p[2].trim() : null);
+                listed++;
+            }
+        }
+        return listed;
+    }
+
+    int size() {
+        return symbols.size();
+    }
+
+    // -1 if not listed; case-insensitive, no allocation
+    int idOf(CharSequence symbol) {
+        return symbols.idOf(symbol);
+    }
+
+    int idOf(CharSequence text, int from, int to) {
+        return symbols.idOf(text, from, to);
+    }
+
+    Stock get(CharSequence symbol) {
+        int id = symbols.idOf(symbol);
+        return id < 0 ? null : stocks[id];
+    }
+
+    Stock stock(int id) {
+        return stocks[id];
+    }
+
+    String name(int id) {
+        return names[id];
+    }
+
+    double price(int id) {
+        return (double) PRICE.getAcquire(pricePages[id >>> PAGE_BITS], id & (PAGE_SIZE - 1));
+    }
+
+    void setPrice(int id, double price) {
+        PRICE.setRelease(pricePages[id >>> PAGE_BITS], id & (PAGE_SIZE - 1), price);
+    }
+
+    List<Stock> all() {
+        int n = size();
+        List<Stock> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) out.add(stocks[i]);
+        return out;
+    }
+
+    // Listings whose symbol starts with the prefix (case-insensitive), then listings whose name does
+    List<Stock> search(String prefix, int limit) {
+        LinkedHashSet<Integer> hits = new LinkedHashSet<>();
+        symbolIndex().collect(prefix.toUpperCase(Locale.ROOT), limit, hits);
+        if (hits.size() < limit) nameIndex().collect(prefix.toLowerCase(Locale.ROOT), limit, hits);
+        List<Stock> out = new ArrayList<>(hits.size());
+        for (int id : hits) out.add(stocks[id]);
+        return out;
+    }
+
+    private SearchIndex symbolIndex() {
+        SearchIndex idx = symbolIndex;
+        if (idx == null) {
+            synchronized (this) {
+                int n = size();
+                String[] keys = new String[n];
+                for (int i = 0; i < n; i++) keys[i] = stocks[i].getSymbol();
+                idx = new SearchIndex(keys);
+                symbolIndex = idx;
+            }
+        }
+        return idx;
+    }
+
+    private SearchIndex nameIndex() {
+        SearchIndex idx = nameIndex;
+        if (idx == null) {
+            synchronized (this) {
+                int n = size();
+                String[] keys = new String[n];
+                for (int i = 0; i < n; i++) keys[i] = names[i] == null ? null : names[i].toLowerCase(Locale.ROOT);
+                idx = new SearchIndex(keys);
+                nameIndex = idx;
+            }
+        }
+        return idx;
+    }
+
+    // Keys sorted alongside their ids; a prefix maps to one contiguous range found by binary search
+    private static class SearchIndex {
+        final String[] keys;
+        final int[] ids;
+
+        SearchIndex(String[] byId) {
+            Integer[] order = new Integer[byId.length];
+            int n = 0;
+            for (int i = 0; i < byId.length; i++) if (byId[i] != null) order[n++] = i;
+            order = Arrays.copyOf(order, n);
+            Arrays.sort(order, Comparator.comparing(i -> byId[i]));
+            keys = new String[n];
+            ids = new int[n];
+            for (int i = 0; i < n; i++) {
+                ids[i] = order[i];
+                keys[i] = byId[order[i]];
+            }
+        }
+
+        void collect(String prefix, int limit, Set<Integer> out) {
+            int lo = 0, hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) lo = mid + 1;
+                else hi = mid;
+            }
+            for (int i = lo; i < keys.length && out.size() < limit && keys[i].startsWith(prefix); i++) {
+                out.add(ids[i]);
+            }
+        }
+    }
+}
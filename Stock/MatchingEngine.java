@@ -0,0 +1,82 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Single-writer matcher for one symbol: any thread may submit, only the engine thread touches the book.
+class MatchingEngine implements Runnable {
+    private static final int BATCH = 256;
+
+    private final OrderBook book;
+    private final MpscRingBuffer<Order> inbound;
+    private volatile boolean running;
+    // producers between their running check and their offer; the engine only exits once this is
+    // zero after running went false, so an accepted order can't land behind the final drain
+    private final AtomicInteger submitting = new AtomicInteger();
+    private Thread thread;
+
+    MatchingEngine(OrderBook book, int queueCapacity) {
+        this.book = book;
+        this.inbound = new MpscRingBuffer<>(queueCapacity);
+    }
+
+    OrderBook getBook() {
+        return book;
+    }
+
+    synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this, "matcher-" + book.getSymbol());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // stops after the queue has been drained
+    synchronized void stop() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // spins while the queue is full (backpressure on producers); false if the engine is not running,
+    // including when stop() has begun, in which case the order was not enqueued
+    boolean submit(Order o) {
+        submitting.incrementAndGet();
+        try {
+            if (!running) return false;
+            while (!inbound.offer(o)) Thread.onSpinWait(); // the engine keeps draining while we're counted
+            return true;
+        } finally {
+            submitting.decrementAndGet();
+        }
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void run() {
+        int idle = 0;
+        while (true) {
+            int n = inbound.drain(book::process, BATCH);
+            if (n > 0) {
+                idle = 0;
+                continue;
+            }
+            // running first: a producer counted after this read sees running == false and backs out
+            if (!running && submitting.get() == 0 && inbound.isEmpty()) return;
+            if (++idle < 100) {
+                Thread.onSpinWait();
+            } else if (idle < 200) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(50_000);
+            }
+        }
+    }
+}
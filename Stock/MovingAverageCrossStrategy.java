@@ -0,0 +1,43 @@
+// Goes long a fixed quantity when the fast SMA crosses above the slow SMA, flat when it crosses below
+class MovingAverageCrossStrategy implements Strategy {
+    private final int fast;
+    private final int slow;
+    private final int quantity;
+    private double[][] window; // per symbol ring of the last 'slow' prices
+    private int[] count;
+    private double[] fastSum;
+    private double[] slowSum;
+
+    MovingAverageCrossStrategy(int fast, int slow, int quantity) {
+        if (fast <= 0 || slow <= fast) throw new IllegalArgumentException("need 0 < fast < slow");
+        this.fast = fast;
+        this.slow = slow;
+        this.quantity = quantity;
+    }
+
+    @Override
+    public void onStart(StrategyContext ctx) {
+        window = new double[ctx.symbolCount()][slow];
+        count = new int[ctx.symbolCount()];
+        fastSum = new double[ctx.symbolCount()];
+        slowSum = new double[ctx.symbolCount()];
+    }
+
+    @Override
+    public void onPrice(StrategyContext ctx, int symbolId, long epochNanos, double price) {
+        double[] w = window[symbolId];
+        int n = count[symbolId];
+        if (n >= slow) slowSum[symbolId] -= w[n % slow];
+        if (n >= fast) fastSum[symbolId] -= w[(n - fast) % slow];
+        w[n % slow] = price;
+        slowSum[symbolId] += price;
+        fastSum[symbolId] += price;
+        count[symbolId] = ++n;
+        if (n < slow) return;
+
+        boolean bullish = fastSum[symbolId] / fast > slowSum[symbolId] / slow;
+        int pos = ctx.position(symbolId);
+        if (bullish && pos == 0) ctx.buy(symbolId, quantity);
+        else if (!bullish && pos > 0) ctx.sell(symbolId, pos);
+    }
+}
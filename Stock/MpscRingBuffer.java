@@ -0,0 +1,69 @@
+import java.util.concurrent.atomic.*;
+import java.util.function.Consumer;
+
+// Bounded lock-free multi-producer / single-consumer queue.
+// Each slot carries a sequence number: producers claim a slot by CAS on the tail and
+// publish it with an ordered write of the sequence; the single consumer needs no CAS.
+class MpscRingBuffer<E> {
+    private final Object[] buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // consumer thread only
+
+    MpscRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        buffer = new Object[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) sequences.set(i, i);
+        mask = size - 1;
+    }
+
+    int capacity() {
+        return buffer.length;
+    }
+
+    // false when the buffer is full
+    boolean offer(E e) {
+        while (true) {
+            long t = tail.get();
+            int idx = (int) (t & mask);
+            long seq = sequences.get(idx);
+            if (seq == t) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    buffer[idx] = e;
+                    sequences.lazySet(idx, t + 1);
+                    return true;
+                }
+            } else if (seq < t) {
+                return false;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    E poll() {
+        int idx = (int) (head & mask);
+        if (sequences.get(idx) != head + 1) return null;
+        E e = (E) buffer[idx];
+        buffer[idx] = null;
+        sequences.lazySet(idx, head + buffer.length);
+        head++;
+        return e;
+    }
+
+    // consume up to limit published elements; returns how many were handed to the consumer
+    int drain(Consumer<E> consumer, int limit) {
+        int n = 0;
+        E e;
+        while (n < limit && (e = poll()) != null) {
+            consumer.accept(e);
+            n++;
+        }
+        return n;
+    }
+
+    boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1;
+    }
+}
@@ -0,0 +1,47 @@
+class Order {
+    enum Side { BUY, SELL }
+    enum Type { MARKET, LIMIT, CANCEL }
+
+    final long id;
+    final String symbol;
+    final Side side;
+    final Type type;
+    final long priceTicks; // limit price in ticks (ignored for MARKET)
+    final int quantity;
+    final long cancelTargetId; // order to cancel (CANCEL only)
+    int remaining;
+
+    // intrusive links inside a PriceLevel queue (owned by the matching thread)
+    Order prev;
+    Order next;
+    PriceLevel level;
+
+    private Order(long id, String symbol, Side side, Type type, long priceTicks, int quantity, long cancelTargetId) {
+        this.id = id;
+        this.symbol = symbol;
+        this.side = side;
+        this.type = type;
+        this.priceTicks = priceTicks;
+        this.quantity = quantity;
+        this.remaining = quantity;
+        this.cancelTargetId = cancelTargetId;
+    }
+
+    static Order limit(long id, String symbol, Side side, long priceTicks, int quantity) {
+        return new Order(id, symbol, side, Type.LIMIT, priceTicks, quantity, 0);
+    }
+
+    static Order market(long id, String symbol, Side side, int quantity) {
+        return new Order(id, symbol, side, Type.MARKET, 0, quantity, 0);
+    }
+
+    static Order cancel(long id, String symbol, long targetId) {
+        return new Order(id, symbol, null, Type.CANCEL, 0, 0, targetId);
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + (side == null ? "" : side + " ") + symbol + " #" + id
+                + " | Qty: " + remaining + "/" + quantity + " | Ticks: " + priceTicks;
+    }
+}
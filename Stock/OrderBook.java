@@ -0,0 +1,167 @@
+import java.util.*;
+
+// Limit order book for one symbol with price-time priority.
+// Price levels live in a flat ladder indexed by (priceTicks - minTick); not thread-safe,
+// it is owned by the symbol's MatchingEngine thread.
+class OrderBook {
+    private final String symbol;
+    private final long minTick;
+    private final PriceLevel[] ladder;
+    private final HashMap<Long, Order> resting = new HashMap<>();
+    private int bestBid = -1;  // ladder index, -1 when no bids
+    private int bestAsk = -1;  // ladder index, -1 when no asks
+    private volatile long lastTradeTicks; // also read by other threads as a reference price
+    private TradeListener listener;
+
+    OrderBook(String symbol, long minTick, long maxTick) {
+        if (maxTick < minTick) throw new IllegalArgumentException("maxTick < minTick");
+        this.symbol = symbol;
+        this.minTick = minTick;
+        this.ladder = new PriceLevel[(int) (maxTick - minTick + 1)];
+    }
+
+    void setListener(TradeListener listener) {
+        this.listener = listener;
+    }
+
+    String getSymbol() {
+        return symbol;
+    }
+
+    long getBestBidTicks() {
+        return bestBid < 0 ? -1 : minTick + bestBid;
+    }
+
+    long getBestAskTicks() {
+        return bestAsk < 0 ? -1 : minTick + bestAsk;
+    }
+
+    long getLastTradeTicks() {
+        return lastTradeTicks;
+    }
+
+    long depthAt(long priceTicks) {
+        int idx = index(priceTicks);
+        if (idx < 0 || ladder[idx] == null) return 0;
+        return ladder[idx].totalQuantity;
+    }
+
+    int restingOrders() {
+        return resting.size();
+    }
+
+    void process(Order o) {
+        switch (o.type) {
+            case CANCEL:
+                cancel(o.cancelTargetId);
+                break;
+            case MARKET:
+                match(o, o.side == Order.Side.BUY ? Integer.MAX_VALUE : Integer.MIN_VALUE);
+                done(o); // unfilled market remainder is not rested
+                break;
+            case LIMIT:
+                int idx = index(o.priceTicks);
+                if (idx < 0) {
+                    reject(o, "price " + o.priceTicks + " outside band [" + minTick + ", "
+                            + (minTick + ladder.length - 1) + "] ticks");
+                    break;
+                }
+                match(o, idx);
+                if (o.remaining > 0) rest(o, idx);
+                else done(o);
+                break;
+        }
+    }
+
+    boolean cancel(long orderId) {
+        Order o = resting.remove(orderId);
+        if (o == null) return false;
+        PriceLevel level = o.level;
+        level.remove(o);
+        int idx = (int) (level.priceTicks - minTick);
+        if (level.isEmpty()) {
+            if (idx == bestBid) bestBid = nextBidBelow(idx);
+            if (idx == bestAsk) bestAsk = nextAskAbove(idx);
+        }
+        o.remaining = 0;
+        done(o);
+        return true;
+    }
+
+    // limitIdx bounds how far through the opposite side an incoming order may walk
+    private void match(Order in, int limitIdx) {
+        boolean buy = in.side == Order.Side.BUY;
+        while (in.remaining > 0) {
+            int idx = buy ? bestAsk : bestBid;
+            if (idx < 0) break;
+            if (buy ? idx > limitIdx : idx < limitIdx) break;
+
+            PriceLevel level = ladder[idx];
+            while (in.remaining > 0 && level.head != null) {
+                Order maker = level.head;
+                int qty = Math.min(in.remaining, maker.remaining);
+                in.remaining -= qty;
+                maker.remaining -= qty;
+                level.totalQuantity -= qty;
+                lastTradeTicks = level.priceTicks;
+                if (listener != null) {
+                    if (buy) listener.onTrade(symbol, in.id, maker.id, level.priceTicks, qty);
+                    else listener.onTrade(symbol, maker.id, in.id, level.priceTicks, qty);
+                }
+                if (maker.remaining == 0) {
+                    level.remove(maker);
+                    resting.remove(maker.id);
+                    done(maker);
+                }
+            }
+            if (level.isEmpty()) {
+                if (buy) bestAsk = nextAskAbove(idx);
+                else bestBid = nextBidBelow(idx);
+            }
+        }
+    }
+
+    private void rest(Order o, int idx) {
+        PriceLevel level = ladder[idx];
+        if (level == null) {
+            level = new PriceLevel(minTick + idx);
+            ladder[idx] = level;
+        }
+        level.add(o);
+        resting.put(o.id, o);
+        if (o.side == Order.Side.BUY) {
+            if (idx > bestBid) bestBid = idx;
+        } else {
+            if (bestAsk < 0 || idx < bestAsk) bestAsk = idx;
+        }
+    }
+
+    private int nextBidBelow(int idx) {
+        for (int i = idx - 1; i >= 0; i--) {
+            if (ladder[i] != null && !ladder[i].isEmpty()) return i;
+        }
+        return -1;
+    }
+
+    private int nextAskAbove(int idx) {
+        for (int i = idx + 1; i < ladder.length; i++) {
+            if (ladder[i] != null && !ladder[i].isEmpty()) return i;
+        }
+        return -1;
+    }
+
+    private int index(long priceTicks) {
+        long i = priceTicks - minTick;
+        if (i < 0 || i >= ladder.length) return -1;
+        return (int) i;
+    }
+
+    private void done(Order o) {
+        if (listener != null) listener.onOrderDone(o);
+    }
+
+    private void reject(Order o, String reason) {
+        o.remaining = 0;
+        if (listener != null) listener.onOrderRejected(o, reason);
+    }
+}
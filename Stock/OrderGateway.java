@@ -0,0 +1,259 @@
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.locks.LockSupport;
+
+// Scriptable front end for the simulator. Clients send one command per line:
+//   <tag> BUY <symbol> <qty> | <tag> SELL <symbol> <qty> | <tag> PRICE <symbol>
+//   <tag> POSITION <symbol>  | <tag> BALANCE              | <tag> PING
+// and get "<tag> OK ..." or "<tag> ERR ..." back, in order, per connection.
+// Each connection's reader decodes lines into commands and publishes them to one
+// shared ring; a single engine thread applies them to the portfolio and market in
+// batches and hands responses to the connection's writer thread, which flushes once
+// its queue runs dry. Nothing blocks on a round trip, so clients can pipeline freely.
+class OrderGateway {
+    private static final int BATCH = 1024;
+
+    private final StockMarket market;
+    private final UserPortfolio portfolio;
+    private final MpscRingBuffer<Command> commands;
+    private final Thread engine;
+    private volatile boolean running = true;
+
+    OrderGateway(StockMarket market, UserPortfolio portfolio, int ringCapacity) {
+        this.market = market;
+        this.portfolio = portfolio;
+        this.commands = new MpscRingBuffer<>(ringCapacity);
+        portfolio.setVerbose(false);
+        engine = new Thread(this::engineLoop, "gateway-engine");
+        engine.setDaemon(true);
+        engine.start();
+    }
+
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(engine);
+    }
+
+    // Serves one stream pair until the input ends; returns after every response is written
+    void serve(InputStream in, OutputStream out) throws IOException {
+        Connection conn = new Connection(out);
+        conn.writer.start();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Command c = decode(line, conn);
+                if (c != null) publish(c);
+            }
+        } finally {
+            publish(new Command(conn, null, Verb.CLOSE, null, 0));
+            try {
+                conn.writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Accepts loopback connections, one reader/writer pair each, all sharing the engine
+    void listen(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            System.out.println("Order gateway listening on " + server.getLocalSocketAddress());
+            while (running) {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                Thread t = new Thread(() -> {
+                    try (Socket s = socket) {
+                        serve(s.getInputStream(), s.getOutputStream());
+                    } catch (IOException e) {
+                        System.out.println("Gateway connection closed: " + e.getMessage());
+                    }
+                }, "gateway-conn-" + socket.getPort());
+                t.setDaemon(true);
+                t.start();
+            }
+        }
+    }
+
+    private void publish(Command c) {
+        while (!commands.offer(c)) Thread.onSpinWait();
+        LockSupport.unpark(engine);
+    }
+
+    private Command decode(String line, Connection conn) {
+        String[] p = line.trim().split("\\s+");
+        if (p.length == 0 || p[0].isEmpty()) return null;
+        if (p.length < 2) return new Command(conn, p[0], Verb.INVALID, line, 0);
+        Verb verb;
+        try {
+            verb = Verb.valueOf(p[1].toUpperCase());
+        } catch (IllegalArgumentException e) {
+            verb = null;
+        }
+        // errors also go through the engine so responses stay in request order
+        if (verb == null || verb == Verb.CLOSE || verb == Verb.INVALID || p.length < verb.args + 2) {
+            return new Command(conn, p[0], Verb.INVALID, line, 0);
+        }
+        String symbol = verb.args >= 1 ? p[2].toUpperCase() : null;
+        int qty = 0;
+        if (verb.args >= 2) {
+            try {
+                qty = Integer.parseInt(p[3]);
+            } catch (NumberFormatException e) {
+                return new Command(conn, p[0], Verb.INVALID, line, 0);
+            }
+        }
+        return new Command(conn, p[0], verb, symbol, qty);
+    }
+
+    private void engineLoop() {
+        while (running || !commands.isEmpty()) {
+            int n = commands.drain(this::execute, BATCH);
+            if (n == 0) LockSupport.parkNanos(100_000);
+        }
+    }
+
+    // engine thread only
+    private void execute(Command c) {
+        if (c.conn.dead) return; // client is gone or hopelessly behind: its remaining commands are dropped
+        if (c.verb == Verb.CLOSE) {
+            c.conn.close();
+            return;
+        }
+        String tag = c.tag;
+        switch (c.verb) {
+            case PING:
+                c.conn.respond(tag + " OK PONG");
+                return;
+            case BALANCE:
+                c.conn.respond(tag + " OK " + portfolio.getBalance());
+                return;
+            case INVALID:
+                c.conn.respond(tag + " ERR invalid command: " + c.symbol);
+                return;
+            default:
+                break;
+        }
+        Stock stock = market.getStock(c.symbol);
+        if (stock == null) {
+            c.conn.respond(tag + " ERR unknown symbol " + c.symbol);
+            return;
+        }
+        switch (c.verb) {
+            case PRICE:
+                c.conn.respond(tag + " OK " + stock.getPrice());
+                break;
+            case POSITION:
+                c.conn.respond(tag + " OK " + portfolio.getHolding(c.symbol));
+                break;
+            case BUY:
+                if (c.qty <= 0) c.conn.respond(tag + " ERR quantity must be positive");
+                else if (portfolio.buyStock(stock, c.qty)) c.conn.respond(tag + " OK BOUGHT " + c.qty + " " + c.symbol + " @ " + portfolio.lastFillPrice());
+                else c.conn.respond(tag + " ERR " + portfolio.lastRejectReason());
+                break;
+            case SELL:
+                if (c.qty <= 0) c.conn.respond(tag + " ERR quantity must be positive");
+                else if (portfolio.sellStock(stock, c.qty)) c.conn.respond(tag + " OK SOLD " + c.qty + " " + c.symbol + " @ " + portfolio.lastFillPrice());
+                else c.conn.respond(tag + " ERR " + portfolio.lastRejectReason());
+                break;
+            default:
+                c.conn.respond(tag + " ERR unsupported");
+        }
+    }
+
+    private enum Verb {
+        BUY(2), SELL(2), PRICE(1), POSITION(1), BALANCE(0), PING(0), INVALID(0), CLOSE(0);
+
+        final int args;
+
+        Verb(int args) {
+            this.args = args;
+        }
+    }
+
+    private static class Command {
+        final Connection conn;
+        final String tag;
+        final Verb verb;
+        final String symbol; // raw line for INVALID
+        final int qty;
+
+        Command(Connection conn, String tag, Verb verb, String symbol, int qty) {
+            this.conn = conn;
+            this.tag = tag;
+            this.verb = verb;
+            this.symbol = symbol;
+            this.qty = qty;
+        }
+    }
+
+    // Responses flow from the engine thread to the connection's writer thread.
+    // The engine never waits on a client: once the writer has failed, or the client has let a full
+    // ring of responses pile up, the connection is marked dead and everything for it is dropped.
+    private static class Connection {
+        private static final String EOF = new String("EOF");
+        private static final int CAPACITY = 1 << 14;
+
+        final MpscRingBuffer<String> responses = new MpscRingBuffer<>(CAPACITY);
+        final Writer out;
+        final Thread writer;
+        volatile boolean dead;
+
+        Connection(OutputStream os) {
+            out = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8), 1 << 16);
+            writer = new Thread(this::writeLoop, "gateway-writer");
+            writer.setDaemon(true);
+        }
+
+        void respond(String line) {
+            if (dead) return;
+            // a gap in the in-order response stream would desync the client, so a full ring ends the connection
+            if (!responses.offer(line)) dead = true;
+            LockSupport.unpark(writer);
+        }
+
+        void close() {
+            respond(EOF);
+        }
+
+        private void writeLoop() {
+            try {
+                while (!dead) {
+                    String line = responses.poll();
+                    if (line == null) {
+                        out.flush(); // queue ran dry: push the batch out
+                        LockSupport.parkNanos(100_000);
+                        continue;
+                    }
+                    if (line == EOF) {
+                        out.flush();
+                        return;
+                    }
+                    out.write(line);
+                    out.write('\n');
+                }
+                System.out.println("Gateway dropped a client more than " + CAPACITY + " responses behind");
+            } catch (IOException e) {
+                dead = true;
+                System.out.println("Gateway write failed: " + e.getMessage());
+            }
+            try {
+                out.close(); // for sockets this also ends the connection's reader
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    // Usage: OrderGateway            -> commands on stdin, responses on stdout
+    //        OrderGateway --port N   -> loopback TCP server
+    public static void main(String[] args) throws IOException {
+        OrderGateway gateway = new OrderGateway(new StockMarket(), new UserPortfolio(), 1 << 16);
+        if (args.length == 2 && args[0].equals("--port")) {
+            gateway.listen(Integer.parseInt(args[1]));
+        } else {
+            gateway.serve(System.in, System.out);
+        }
+        gateway.shutdown();
+    }
+}
@@ -0,0 +1,50 @@
+import java.util.Arrays;
+
+// Book-wide P&L across many PnlTrackers. Trackers push position/cost deltas on fills,
+// so a price tick only has to touch the symbol's net quantity: O(1) regardless of account count.
+class PnlAggregator {
+    private long[] netQty = new long[16];
+    private double[] costBasis = new double[16];
+    private double[] lastPrice = new double[16];
+    private double realized;
+    private double unrealized; // sum over symbols of netQty * lastPrice - costBasis
+
+    synchronized void onPositionChange(int symbolId, long qtyDelta, double costDelta, double realizedDelta) {
+        ensure(symbolId);
+        netQty[symbolId] += qtyDelta;
+        costBasis[symbolId] += costDelta;
+        realized += realizedDelta;
+        unrealized += qtyDelta * lastPrice[symbolId] - costDelta;
+    }
+
+    synchronized void onPrice(int symbolId, double price) {
+        ensure(symbolId);
+        unrealized += netQty[symbolId] * (price - lastPrice[symbolId]);
+        lastPrice[symbolId] = price;
+    }
+
+    synchronized double realized() {
+        return realized;
+    }
+
+    synchronized double unrealized() {
+        return unrealized;
+    }
+
+    synchronized long netQuantity(int symbolId) {
+        return symbolId < netQty.length ? netQty[symbolId] : 0;
+    }
+
+    // market value of the aggregate position in one symbol
+    synchronized double exposure(int symbolId) {
+        return symbolId < netQty.length ? netQty[symbolId] * lastPrice[symbolId] : 0;
+    }
+
+    private void ensure(int symbolId) {
+        if (symbolId < netQty.length) return;
+        int cap = Math.max(symbolId + 1, netQty.length * 2);
+        netQty = Arrays.copyOf(netQty, cap);
+        costBasis = Arrays.copyOf(costBasis, cap);
+        lastPrice = Arrays.copyOf(lastPrice, cap);
+    }
+}
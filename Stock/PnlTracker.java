@@ -0,0 +1,195 @@
+import java.util.Arrays;
+
+// Event-driven P&L for one account (long-only, like UserPortfolio).
+// Fills and ticks each update per-symbol and account totals in O(1)
+// (FIFO fills are amortized O(1) per lot consumed); nothing is rescanned on read.
+class PnlTracker {
+    enum CostMethod { AVERAGE, FIFO }
+
+    private final SymbolTable symbols;
+    private final CostMethod method;
+    private final PnlAggregator aggregator; // may be null
+
+    private long[] qty = new long[16];
+    private double[] cost = new double[16];       // cost basis of the open position
+    private double[] realizedBy = new double[16];
+    private double[] lastPrice = nanFilled(16);     // NaN until a fill or tick is seen
+    private Lots[] lots = new Lots[16];           // FIFO only
+    private double realized;
+    private double unrealized;
+    private double grossExposure;
+
+    PnlTracker(SymbolTable symbols, CostMethod method, PnlAggregator aggregator) {
+        this.symbols = symbols;
+        this.method = method;
+        this.aggregator = aggregator;
+    }
+
+    void onFill(String symbol, boolean buy, long quantity, double price) {
+        onFill(symbols.intern(symbol), buy, quantity, price);
+    }
+
+    void onFill(int s, boolean buy, long quantity, double price) {
+        if (quantity <= 0) return;
+        ensure(s);
+        double oldValue = qty[s] == 0 ? 0 : qty[s] * lastPrice[s];
+        double oldCost = cost[s];
+        double realizedDelta = 0;
+
+        if (buy) {
+            qty[s] += quantity;
+            cost[s] += quantity * price;
+            if (method == CostMethod.FIFO) lotsFor(s).add(quantity, price);
+        } else {
+            if (quantity > qty[s]) throw new IllegalArgumentException("sell exceeds position in " + symbols.symbol(s));
+            double released = method == CostMethod.FIFO
+                    ? lots[s].consume(quantity)
+                    : cost[s] * quantity / qty[s];
+            qty[s] -= quantity;
+            cost[s] = qty[s] == 0 ? 0 : cost[s] - released;
+            realizedDelta = quantity * price - released;
+            realizedBy[s] += realizedDelta;
+            realized += realizedDelta;
+        }
+        // the fill itself is a price observation
+        lastPrice[s] = price;
+        double newValue = qty[s] * price;
+        unrealized += (newValue - cost[s]) - (oldValue - oldCost);
+        grossExposure += newValue - oldValue;
+
+        if (aggregator != null) {
+            aggregator.onPositionChange(s, buy ? quantity : -quantity, cost[s] - oldCost, realizedDelta);
+        }
+    }
+
+    void onPrice(String symbol, double price) {
+        int s = symbols.idOf(symbol);
+        if (s >= 0) onPrice(s, price);
+    }
+
+    void onPrice(int s, double price) {
+        if (s >= qty.length) {
+            return; // never traded here
+        }
+        if (qty[s] != 0) {
+            double delta = qty[s] * (price - lastPrice[s]);
+            unrealized += delta;
+            grossExposure += delta;
+        }
+        lastPrice[s] = price;
+    }
+
+    double realized() {
+        return realized;
+    }
+
+    double unrealized() {
+        return unrealized;
+    }
+
+    double grossExposure() {
+        return grossExposure;
+    }
+
+    long quantity(int s) {
+        return s < qty.length ? qty[s] : 0;
+    }
+
+    long quantity(String symbol) {
+        int s = symbols.idOf(symbol);
+        return s < 0 ? 0 : quantity(s);
+    }
+
+    double costBasis(int s) {
+        return s < cost.length ? cost[s] : 0;
+    }
+
+    double averageCost(int s) {
+        return quantity(s) == 0 ? 0 : cost[s] / qty[s];
+    }
+
+    double realized(int s) {
+        return s < realizedBy.length ? realizedBy[s] : 0;
+    }
+
+    double unrealized(int s) {
+        return quantity(s) != 0 ? qty[s] * lastPrice[s] - cost[s] : 0;
+    }
+
+    double exposure(int s) {
+        return quantity(s) != 0 ? qty[s] * lastPrice[s] : 0;
+    }
+
+    // last traded / ticked price, NaN if never seen
+    double lastPrice(String symbol) {
+        int s = symbols.idOf(symbol);
+        return s < 0 || s >= lastPrice.length ? Double.NaN : lastPrice[s];
+    }
+
+    private static double[] nanFilled(int n) {
+        double[] a = new double[n];
+        Arrays.fill(a, Double.NaN);
+        return a;
+    }
+
+    private Lots lotsFor(int s) {
+        if (lots[s] == null) lots[s] = new Lots();
+        return lots[s];
+    }
+
+    private void ensure(int s) {
+        if (s < qty.length) return;
+        int cap = Math.max(s + 1, qty.length * 2);
+        qty = Arrays.copyOf(qty, cap);
+        cost = Arrays.copyOf(cost, cap);
+        realizedBy = Arrays.copyOf(realizedBy, cap);
+        int old = lastPrice.length;
+        lastPrice = Arrays.copyOf(lastPrice, cap);
+        Arrays.fill(lastPrice, old, cap, Double.NaN);
+        lots = Arrays.copyOf(lots, cap);
+    }
+
+    // FIFO open lots as a ring of primitive (qty, price) pairs
+    private static class Lots {
+        private long[] qty = new long[8];
+        private double[] price = new double[8];
+        private int head;
+        private int size;
+
+        void add(long q, double p) {
+            if (size == qty.length) grow();
+            int i = (head + size) & (qty.length - 1);
+            qty[i] = q;
+            price[i] = p;
+            size++;
+        }
+
+        // removes q shares oldest-first; returns their cost
+        double consume(long q) {
+            double released = 0;
+            while (q > 0) {
+                long take = Math.min(q, qty[head]);
+                released += take * price[head];
+                qty[head] -= take;
+                q -= take;
+                if (qty[head] == 0) {
+                    head = (head + 1) & (qty.length - 1);
+                    size--;
+                }
+            }
+            return released;
+        }
+
+        private void grow() {
+            long[] nq = new long[qty.length * 2];
+            double[] np = new double[qty.length * 2];
+            for (int i = 0; i < size; i++) {
+                nq[i] = qty[(head + i) & (qty.length - 1)];
+                np[i] = price[(head + i) & (qty.length - 1)];
+            }
+            qty = nq;
+            price = np;
+            head = 0;
+        }
+    }
+}
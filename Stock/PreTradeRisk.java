@@ -0,0 +1,100 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Pre-trade risk gate. All limit checks are evaluated together and OR-ed into a reject
+// bitmask with no early exits, so the common "accept" path is a straight line of
+// compares. Rate limiting is a lock-free token bucket per account (GCRA: one CAS on the
+// account's theoretical arrival time) and only spends a token when everything else passed.
+// Configure limits before orders start flowing; check() itself is thread-safe.
+class PreTradeRisk {
+    static final int OK = 0;
+    static final int POSITION_LIMIT = 1;
+    static final int NOTIONAL_CAP = 1 << 1;
+    static final int PRICE_BAND = 1 << 2;
+    static final int RATE_LIMIT = 1 << 3;
+    static final int BAD_QUANTITY = 1 << 4;
+
+    private final SymbolTable symbols;
+    private long defaultMaxPosition = Long.MAX_VALUE;
+    private long[] maxPosition = new long[0]; // per symbol id, 0 = use default
+    private long maxNotionalCents = Long.MAX_VALUE;
+    private long priceBandBps;                  // allowed deviation from reference, in basis points; 0 = no band
+
+    private final AtomicLongArray nextAllowedNanos; // per account: GCRA theoretical arrival time
+    private long emissionIntervalNanos;             // 0 = no rate limit
+    private long burstToleranceNanos;
+
+    PreTradeRisk(SymbolTable symbols, int maxAccounts) {
+        this.symbols = symbols;
+        this.nextAllowedNanos = new AtomicLongArray(maxAccounts);
+        for (int i = 0; i < maxAccounts; i++) nextAllowedNanos.set(i, Long.MIN_VALUE); // nanoTime may be negative
+    }
+
+    void setMaxPosition(long shares) {
+        defaultMaxPosition = shares;
+    }
+
+    void setMaxPosition(String symbol, long shares) {
+        int id = symbols.intern(symbol);
+        if (id >= maxPosition.length) maxPosition = Arrays.copyOf(maxPosition, Math.max(id + 1, maxPosition.length * 2));
+        maxPosition[id] = shares;
+    }
+
+    void setMaxNotional(double dollars) {
+        maxNotionalCents = StockMarket.toTicks(dollars);
+    }
+
+    void setPriceBandBps(long bps) {
+        priceBandBps = bps;
+    }
+
+    // ordersPerSecond <= 0 removes the limit
+    void setRateLimit(int ordersPerSecond, int burst) {
+        emissionIntervalNanos = ordersPerSecond <= 0 ? 0 : 1_000_000_000L / ordersPerSecond;
+        burstToleranceNanos = emissionIntervalNanos * Math.max(0, burst - 1);
+    }
+
+    // position = account's current shares in the symbol; refPriceCents = last market price, independent
+    // of the order's own price (0 skips the band)
+    int check(int account, int symbolId, boolean buy, long qty, long priceCents, long refPriceCents, long position) {
+        long after = buy ? position + qty : position - qty;
+        long limit = symbolId >= 0 && symbolId < maxPosition.length && maxPosition[symbolId] != 0
+                ? maxPosition[symbolId] : defaultMaxPosition;
+        long notional = qty * priceCents;
+        // in double so that neither side can overflow for far-off prices or wide bands
+        double deviation = Math.abs((double) priceCents - refPriceCents) * 10_000;
+
+        int flags = (qty <= 0 ? BAD_QUANTITY : 0)
+                | (Math.abs(after) > limit ? POSITION_LIMIT : 0)
+                | (notional > maxNotionalCents || notional < 0 ? NOTIONAL_CAP : 0)
+                | (priceBandBps > 0 && refPriceCents > 0 && deviation > (double) priceBandBps * refPriceCents ? PRICE_BAND : 0);
+        if (flags == OK && emissionIntervalNanos > 0 && !acquire(account)) flags = RATE_LIMIT;
+        return flags;
+    }
+
+    int check(int account, String symbol, boolean buy, long qty, long priceCents, long refPriceCents, long position) {
+        int id = symbols.idOf(symbol); // this table's ids, not the market's
+        return check(account, id, buy, qty, priceCents, refPriceCents, position);
+    }
+
+    private boolean acquire(int account) {
+        long now = System.nanoTime();
+        while (true) {
+            long tat = nextAllowedNanos.get(account);
+            long start = Math.max(tat, now);
+            if (start - now > burstToleranceNanos) return false;
+            if (nextAllowedNanos.compareAndSet(account, tat, start + emissionIntervalNanos)) return true;
+        }
+    }
+
+    static String describe(int flags) {
+        if (flags == OK) return "OK";
+        StringJoiner j = new StringJoiner(", ");
+        if ((flags & BAD_QUANTITY) != 0) j.add("quantity must be positive");
+        if ((flags & POSITION_LIMIT) != 0) j.add("position limit");
+        if ((flags & NOTIONAL_CAP) != 0) j.add("notional cap");
+        if ((flags & PRICE_BAND) != 0) j.add("price outside band");
+        if ((flags & RATE_LIMIT) != 0) j.add("order rate limit");
+        return j.toString();
+    }
+}
@@ -0,0 +1,114 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+
+// Latest price per symbol in flat arrays, published with a seqlock:
+// one writer brackets a round of updates with begin/endWrite, readers retry
+// if the sequence was odd or moved while they were reading. Readers never block
+// the writer and always see every price from the same round.
+class PriceBoard {
+    private static final VarHandle SEQUENCE;
+
+    static {
+        try {
+            SEQUENCE = MethodHandles.lookup().findVarHandle(PriceBoard.class, "sequence", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final String[] symbols;
+    private final HashMap<String, Integer> ids = new HashMap<>();
+    private final double[] prices;
+    private final long[] updatedNanos;
+    @SuppressWarnings("unused")
+    private volatile long sequence; // even = stable, odd = write in progress
+
+    PriceBoard(List<Stock> stocks) {
+        int n = stocks.size();
+        symbols = new String[n];
+        prices = new double[n];
+        updatedNanos = new long[n];
+        for (int i = 0; i < n; i++) {
+            Stock s = stocks.get(i);
+            symbols[i] = s.getSymbol();
+            prices[i] = s.getPrice();
+            ids.put(s.getSymbol(), i);
+        }
+    }
+
+    int size() {
+        return symbols.length;
+    }
+
+    // -1 if the symbol is not on the board
+    int idOf(String symbol) {
+        Integer id = ids.get(symbol);
+        return id == null ? -1 : id;
+    }
+
+    String symbolAt(int id) {
+        return symbols[id];
+    }
+
+    // ---- writer side (single thread) ----
+
+    void beginWrite() {
+        long s = (long) SEQUENCE.getOpaque(this);
+        SEQUENCE.setOpaque(this, s + 1);
+        VarHandle.storeStoreFence();
+    }
+
+    void set(int id, double price, long nanos) {
+        prices[id] = price;
+        updatedNanos[id] = nanos;
+    }
+
+    void endWrite() {
+        long s = (long) SEQUENCE.getOpaque(this);
+        SEQUENCE.setRelease(this, s + 1);
+    }
+
+    // ---- reader side (any thread) ----
+
+    long sequence() {
+        return (long) SEQUENCE.getAcquire(this);
+    }
+
+    double price(int id) {
+        while (true) {
+            long before = (long) SEQUENCE.getAcquire(this);
+            if ((before & 1) == 0) {
+                double p = prices[id];
+                VarHandle.loadLoadFence();
+                if ((long) SEQUENCE.getOpaque(this) == before) return p;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    // Copies every price of one consistent round into out; returns that round's sequence
+    long snapshot(double[] out) {
+        while (true) {
+            long before = (long) SEQUENCE.getAcquire(this);
+            if ((before & 1) == 0) {
+                System.arraycopy(prices, 0, out, 0, prices.length);
+                VarHandle.loadLoadFence();
+                if ((long) SEQUENCE.getOpaque(this) == before) return before;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    long lastUpdateNanos(int id) {
+        while (true) {
+            long before = (long) SEQUENCE.getAcquire(this);
+            if ((before & 1) == 0) {
+                long t = updatedNanos[id];
+                VarHandle.loadLoadFence();
+                if ((long) SEQUENCE.getOpaque(this) == before) return t;
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Scheduled tick simulator: one writer thread advances every symbol with the PriceModel,
+// publishes the round on the PriceBoard and fans the update out to subscribers.
+// Subscribers run on their own pool and are conflated, so a slow one only skips rounds.
+class PriceFeed {
+    private final PriceBoard board;
+    private final Stock[] stocks;
+    private final double[] current;
+    private final PriceModel model;
+    private final long periodMillis;
+    private final SplittableRandom rnd;
+    private final List<Subscription> subscribers = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService ticker;
+    private ExecutorService fanOut;
+    private long lastTickNanos;
+
+    PriceFeed(PriceBoard board, List<Stock> stocks, PriceModel model, long periodMillis, long seed) {
+        this.board = board;
+        this.stocks = new Stock[board.size()];
+        for (Stock s : stocks) {
+            int id = board.idOf(s.getSymbol());
+            if (id >= 0) this.stocks[id] = s;
+        }
+        this.current = new double[board.size()];
+        board.snapshot(current);
+        this.model = model;
+        this.periodMillis = periodMillis;
+        this.rnd = new SplittableRandom(seed);
+    }
+
+    PriceBoard getBoard() {
+        return board;
+    }
+
+    void subscribe(PriceListener listener) {
+        subscribers.add(new Subscription(listener));
+    }
+
+    void unsubscribe(PriceListener listener) {
+        subscribers.removeIf(s -> s.listener == listener);
+    }
+
+    synchronized void start() {
+        if (ticker != null) return;
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "price-feed"));
+        fanOut = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                r -> daemon(r, "price-subscriber"));
+        lastTickNanos = System.nanoTime();
+        ticker.scheduleAtFixedRate(this::tick, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void stop() {
+        if (ticker == null) return;
+        ticker.shutdown();
+        fanOut.shutdown();
+        try {
+            ticker.awaitTermination(1, TimeUnit.SECONDS);
+            fanOut.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ticker = null;
+        fanOut = null;
+    }
+
+    // One simulation round; also callable directly for deterministic stepping
+    void tick() {
+        long now = System.nanoTime();
+        double dtSeconds = (now - lastTickNanos) / 1e9;
+        lastTickNanos = now;
+
+        for (int i = 0; i < current.length; i++) {
+            current[i] = model.next(current[i], dtSeconds, rnd);
+        }
+        board.beginWrite();
+        for (int i = 0; i < current.length; i++) board.set(i, current[i], now);
+        board.endWrite();
+        for (int i = 0; i < current.length; i++) {
+            if (stocks[i] != null) stocks[i].setPrice(current[i]);
+        }
+
+        ExecutorService pool = fanOut;
+        for (Subscription s : subscribers) {
+            if (pool == null) s.deliver();
+            else if (s.pending.compareAndSet(false, true)) pool.execute(s::deliver);
+        }
+    }
+
+    private static Thread daemon(Runnable r, String name) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+    }
+
+    private class Subscription {
+        final PriceListener listener;
+        final AtomicBoolean pending = new AtomicBoolean();
+
+        Subscription(PriceListener listener) {
+            this.listener = listener;
+        }
+
+        void deliver() {
+            pending.set(false);
+            try {
+                listener.onPrices(board.sequence(), board);
+            } catch (RuntimeException e) {
+                System.out.println("Price subscriber failed: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+// FIFO of resting orders at one price; orders are linked in place so add/cancel never allocate
+class PriceLevel {
+    final long priceTicks;
+    Order head;
+    Order tail;
+    long totalQuantity;
+
+    PriceLevel(long priceTicks) {
+        this.priceTicks = priceTicks;
+    }
+
+    boolean isEmpty() {
+        return head == null;
+    }
+
+    void add(Order o) {
+        o.level = this;
+        o.prev = tail;
+        o.next = null;
+        if (tail == null) head = o;
+        else tail.next = o;
+        tail = o;
+        totalQuantity += o.remaining;
+    }
+
+    void remove(Order o) {
+        if (o.prev == null) head = o.next;
+        else o.prev.next = o.next;
+        if (o.next == null) tail = o.prev;
+        else o.next.prev = o.prev;
+        totalQuantity -= o.remaining;
+        o.prev = null;
+        o.next = null;
+        o.level = null;
+    }
+}
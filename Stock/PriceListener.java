@@ -0,0 +1,4 @@
+interface PriceListener {
+    // called after a tick round was published; read prices from the board
+    void onPrices(long sequence, PriceBoard board);
+}
@@ -0,0 +1,6 @@
+import java.util.SplittableRandom;
+
+interface PriceModel {
+    // next price after dtSeconds of simulated time
+    double next(double price, double dtSeconds, SplittableRandom rnd);
+}
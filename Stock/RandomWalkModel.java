@@ -0,0 +1,17 @@
+import java.util.SplittableRandom;
+
+// Arithmetic random walk: each second the price moves by a normal step of stepPerSecond dollars
+class RandomWalkModel implements PriceModel {
+    private static final double MIN_PRICE = 0.01;
+    private final double stepPerSecond;
+
+    RandomWalkModel(double stepPerSecond) {
+        this.stepPerSecond = stepPerSecond;
+    }
+
+    @Override
+    public double next(double price, double dtSeconds, SplittableRandom rnd) {
+        double p = price + stepPerSecond * Math.sqrt(dtSeconds) * rnd.nextGaussian();
+        return Math.max(MIN_PRICE, p);
+    }
+}
@@ -0,0 +1,60 @@
+import java.util.Arrays;
+
+// VaR / CVaR read off a simulated P&L distribution. Losses are reported as positive amounts:
+// VaR at c is the loss exceeded with probability 1 - c, CVaR the mean loss beyond it.
+class RiskReport {
+    final int paths;
+    final double portfolioValue;
+    final double meanPnl;
+    final double stdDevPnl;
+    final double[] confidence;
+    final double[] var;
+    final double[] cvar;
+    final long elapsedNanos;
+
+    private RiskReport(int paths, double portfolioValue, double meanPnl, double stdDevPnl,
+                       double[] confidence, double[] var, double[] cvar, long elapsedNanos) {
+        this.paths = paths;
+        this.portfolioValue = portfolioValue;
+        this.meanPnl = meanPnl;
+        this.stdDevPnl = stdDevPnl;
+        this.confidence = confidence;
+        this.var = var;
+        this.cvar = cvar;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // sorts pnl in place
+    static RiskReport of(double[] pnl, double[] confidence, double portfolioValue, long simNanos) {
+        int n = pnl.length;
+        double mean = 0, m2 = 0;
+        for (int i = 0; i < n; i++) {
+            double d = pnl[i] - mean;
+            mean += d / (i + 1);
+            m2 += d * (pnl[i] - mean);
+        }
+        Arrays.parallelSort(pnl);
+        // prefix sums of the worst outcomes, for CVaR at every level in one pass
+        double[] var = new double[confidence.length];
+        double[] cvar = new double[confidence.length];
+        for (int c = 0; c < confidence.length; c++) {
+            int tail = Math.max(1, (int) Math.ceil((1 - confidence[c]) * n));
+            var[c] = -pnl[tail - 1];
+            double sum = 0;
+            for (int i = 0; i < tail; i++) sum += pnl[i];
+            cvar[c] = -sum / tail;
+        }
+        return new RiskReport(n, portfolioValue, mean, n > 1 ? Math.sqrt(m2 / (n - 1)) : 0,
+                confidence.clone(), var, cvar, simNanos);
+    }
+
+    void print() {
+        System.out.printf("Positions value: $%.2f | paths: %d | simulated in %.2f s%n",
+                portfolioValue, paths, elapsedNanos / 1e9);
+        System.out.printf("Mean P&L: $%.2f | Std dev: $%.2f%n", meanPnl, stdDevPnl);
+        for (int c = 0; c < confidence.length; c++) {
+            System.out.printf("%5.1f%%  VaR: $%.2f (%.2f%%)  CVaR: $%.2f (%.2f%%)%n", confidence[c] * 100,
+                    var[c], 100 * var[c] / portfolioValue, cvar[c], 100 * cvar[c] / portfolioValue);
+        }
+    }
+}
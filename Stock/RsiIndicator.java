@@ -0,0 +1,40 @@
+// Wilder's RSI: smoothed average gain / loss of close-to-close changes
+class RsiIndicator implements Indicator {
+    private final int period;
+    private double prevClose = Double.NaN;
+    private double avgGain;
+    private double avgLoss;
+    private long changes;
+
+    RsiIndicator(int period) {
+        this.period = period;
+    }
+
+    public String name() {
+        return "RSI(" + period + ")";
+    }
+
+    public void onBar(double close, double typicalPrice, long volume) {
+        if (!Double.isNaN(prevClose)) {
+            double change = close - prevClose;
+            double gain = Math.max(change, 0);
+            double loss = Math.max(-change, 0);
+            changes++;
+            if (changes <= period) {
+                // simple average over the first period, then Wilder smoothing
+                avgGain += (gain - avgGain) / changes;
+                avgLoss += (loss - avgLoss) / changes;
+            } else {
+                avgGain = (avgGain * (period - 1) + gain) / period;
+                avgLoss = (avgLoss * (period - 1) + loss) / period;
+            }
+        }
+        prevClose = close;
+    }
+
+    public double value() {
+        if (changes < period) return Double.NaN;
+        if (avgLoss == 0) return avgGain == 0 ? 50 : 100;
+        return 100 - 100 / (1 + avgGain / avgLoss);
+    }
+}
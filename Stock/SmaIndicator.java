@@ -0,0 +1,25 @@
+class SmaIndicator implements Indicator {
+    private final double[] window;
+    private double sum;
+    private long count;
+
+    SmaIndicator(int period) {
+        window = new double[period];
+    }
+
+    public String name() {
+        return "SMA(" + window.length + ")";
+    }
+
+    public void onBar(double close, double typicalPrice, long volume) {
+        int i = (int) (count % window.length);
+        if (count >= window.length) sum -= window[i];
+        window[i] = close;
+        sum += close;
+        count++;
+    }
+
+    public double value() {
+        return count < window.length ? Double.NaN : sum / window.length;
+    }
+}
@@ -1,21 +1,36 @@
 class Stock{
     private String symbol;
-    private double price;
+    private volatile double price; // written by the price feed, read by any thread
+    private final int id;                 // symbol id in the cache, -1 when standalone
+    private final MarketDataCache cache;  // when set, the price lives in the cache's flat array
 
     public Stock(String symbol, double price) {
         this.symbol = symbol;
         this.price = price;
+        this.id = -1;
+        this.cache = null;
+    }
+
+    Stock(String symbol, int id, MarketDataCache cache) {
+        this.symbol = symbol;
+        this.id = id;
+        this.cache = cache;
     }
 
     public String getSymbol() {
         return symbol;
     }
 
+    int getId() {
+        return id;
+    }
+
     public double getPrice() {
-        return price;
+        return cache != null ? cache.price(id) : price;
     }
 
     public void setPrice(double price) {
-        this.price = price;
+        if (cache != null) cache.setPrice(id, price);
+        else this.price = price;
     }
 }
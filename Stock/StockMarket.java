@@ -1,23 +1,185 @@
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 class StockMarket {
-    private HashMap<String, Stock> stocks = new HashMap<>();
+    static final int TICKS_PER_UNIT = 100; // one tick = $0.01
+
+    private final MarketDataCache cache = new MarketDataCache();
+    private final Map<String, MatchingEngine> engines = new ConcurrentHashMap<>();
+    private final AtomicLong orderIds = new AtomicLong();
+    private PriceFeed priceFeed;
+    private volatile PreTradeRisk risk;
+    private volatile TradeListener listener; // from startMatching; told about risk rejections
 
     public StockMarket() {
-        stocks.put("AAPL", new Stock("AAPL", 150.0));
-        stocks.put("GOOG", new Stock("GOOG", 2800.0));
-        stocks.put("TSLA", new Stock("TSLA", 700.0));
-        stocks.put("AMZN", new Stock("AMZN", 3300.0));
+        cache.list("AAPL", 150.0, "Apple Inc.");
+        cache.list("GOOG", 2800.0, "Alphabet Inc.");
+        cache.list("TSLA", 700.0, "Tesla Inc.");
+        cache.list("AMZN", 3300.0, "Amazon.com Inc.");
+    }
+
+    // Case-insensitive and allocation-free
+    public Stock getStock(CharSequence symbol) {
+        return cache.get(symbol);
+    }
+
+    public Stock getStock(int symbolId) {
+        return cache.stock(symbolId);
+    }
+
+    // -1 if not listed
+    public int symbolId(CharSequence symbol) {
+        return cache.idOf(symbol);
+    }
+
+    // New listings only join the price feed the next time it is started
+    public void listStock(String symbol, double price) {
+        cache.list(symbol, price, null);
+    }
+
+    // Symbol universe file: symbol,price[,name] per line
+    public int loadUniverse(Path file) throws IOException {
+        return cache.load(file);
+    }
+
+    public List<Stock> search(String prefix, int limit) {
+        return cache.search(prefix, limit);
     }
 
-    public Stock getStock(String symbol) {
-        return stocks.get(symbol);
+    public int size() {
+        return cache.size();
     }
 
     public void displayMarket() {
         System.out.println("\n--- Market Prices ---");
-        for (Stock stock : stocks.values()) {
+        for (int id = 0; id < cache.size(); id++) {
+            Stock stock = cache.stock(id);
             System.out.println(stock.getSymbol() + " → $" + stock.getPrice());
         }
     }
+
+    // Last price plus the latest closed bar and its indicators at the given interval
+    public void displayMarket(BarAggregator bars, long intervalNanos) {
+        System.out.println("\n--- Market Prices ---");
+        for (int id = 0; id < cache.size(); id++) {
+            Stock stock = cache.stock(id);
+            StringBuilder line = new StringBuilder(stock.getSymbol() + " → $" + stock.getPrice());
+            BarSeries s = bars.series(stock.getSymbol(), intervalNanos);
+            if (s != null && s.size() > 0) {
+                line.append(String.format(" | O: %.2f H: %.2f L: %.2f C: %.2f V: %d",
+                        s.open(0), s.high(0), s.low(0), s.close(0), s.volume(0)));
+                for (Indicator ind : s.indicators()) {
+                    line.append(String.format(" | %s: %.2f", ind.name(), ind.value()));
+                }
+            }
+            System.out.println(line);
+        }
+    }
+
+    public synchronized PriceFeed startPriceFeed(PriceModel model, long periodMillis) {
+        if (priceFeed != null) priceFeed.stop();
+        List<Stock> listed = cache.all();
+        priceFeed = new PriceFeed(new PriceBoard(listed), listed, model, periodMillis, System.nanoTime());
+        priceFeed.start();
+        return priceFeed;
+    }
+
+    public synchronized void stopPriceFeed() {
+        if (priceFeed != null) priceFeed.stop();
+        priceFeed = null; // readers fall back to Stock.getPrice instead of a frozen board
+    }
+
+    // Board of the running feed, or null when prices are static
+    public synchronized PriceBoard getPriceBoard() {
+        return priceFeed == null ? null : priceFeed.getBoard();
+    }
+
+    static long toTicks(double price) {
+        return Math.round(price * TICKS_PER_UNIT);
+    }
+
+    static double fromTicks(long ticks) {
+        return (double) ticks / TICKS_PER_UNIT;
+    }
+
+    // Current prices in cents, indexed by the table's symbol ids (0 for symbols not listed here)
+    long[] priceCents(SymbolTable table, long[] out) {
+        int n = table.size();
+        if (out == null || out.length < n) out = new long[n];
+        for (int i = 0; i < n; i++) {
+            Stock s = cache.get(table.symbol(i));
+            out[i] = s == null ? 0 : toTicks(s.getPrice());
+        }
+        return out;
+    }
+
+    long nextOrderId() {
+        return orderIds.incrementAndGet();
+    }
+
+    // One book + matching thread per listed symbol; limit prices are accepted from 1 tick up to twice the reference price,
+    // anything outside is reported through TradeListener.onOrderRejected.
+    public synchronized void startMatching(TradeListener listener, int queueCapacity) {
+        this.listener = listener;
+        for (Stock stock : cache.all()) {
+            MatchingEngine engine = engines.get(stock.getSymbol());
+            if (engine == null) {
+                OrderBook book = new OrderBook(stock.getSymbol(), 1, 2 * toTicks(stock.getPrice()));
+                book.setListener(listener);
+                engine = new MatchingEngine(book, queueCapacity);
+                engines.put(stock.getSymbol(), engine);
+            }
+            engine.start();
+        }
+    }
+
+    public synchronized void stopMatching() {
+        for (MatchingEngine engine : engines.values()) engine.stop();
+    }
+
+    // Limit and market orders pass this gate before reaching a book
+    public void setPreTradeRisk(PreTradeRisk risk) {
+        this.risk = risk;
+    }
+
+    public boolean submitOrder(Order order) {
+        return submitOrder(order, 0, 0);
+    }
+
+    // false when the symbol has no running matching engine or the risk gate refuses the order.
+    // The market does not track positions, so the caller supplies the account's current one.
+    public boolean submitOrder(Order order, int account, long position) {
+        MatchingEngine engine = engines.get(order.symbol);
+        if (engine == null || !engine.isRunning()) return false;
+        PreTradeRisk r = risk;
+        if (r != null && order.type != Order.Type.CANCEL) {
+            long ref = referencePriceTicks(order.symbol);
+            long price = order.type == Order.Type.LIMIT ? order.priceTicks : ref;
+            int flags = r.check(account, order.symbol, order.side == Order.Side.BUY, order.quantity, price, ref, position);
+            if (flags != PreTradeRisk.OK) {
+                TradeListener l = listener;
+                if (l != null) l.onOrderRejected(order, "risk: " + PreTradeRisk.describe(flags));
+                return false;
+            }
+        }
+        return engine.submit(order);
+    }
+
+    // Fat-finger reference: the last trade on the symbol's book, else its quoted price (0 if unlisted)
+    long referencePriceTicks(String symbol) {
+        MatchingEngine engine = engines.get(symbol);
+        long last = engine == null ? 0 : engine.getBook().getLastTradeTicks();
+        if (last > 0) return last;
+        Stock s = getStock(symbol);
+        return s == null ? 0 : toTicks(s.getPrice());
+    }
+
+    // Only safe to inspect once matching is stopped (the book belongs to its engine thread)
+    public OrderBook getOrderBook(String symbol) {
+        MatchingEngine engine = engines.get(symbol);
+        return engine == null ? null : engine.getBook();
+    }
 }
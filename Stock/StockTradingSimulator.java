@@ -1,10 +1,14 @@
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 class StockTradingSimulator {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         Scanner sc = new Scanner(System.in);
         StockMarket market = new StockMarket();
-        UserPortfolio portfolio = new UserPortfolio();
+        TransactionLedger ledger = TransactionLedger.open(Paths.get("ledger"), 10000.0);
+        UserPortfolio portfolio = new UserPortfolio(ledger);
 
         while (true) {
             System.out.println("\n===== STOCK TRADING SIMULATOR =====");
@@ -13,7 +17,8 @@ class StockTradingSimulator {
             System.out.println("3. Sell Stock");
             System.out.println("4. View Portfolio");
             System.out.println("5. View Transaction History");
-            System.out.println("6. Exit");
+            System.out.println("6. Portfolio Risk (Monte Carlo VaR)");
+            System.out.println("7. Exit");
             System.out.print("Choose option: ");
 
             int choice = sc.nextInt();
@@ -58,7 +63,35 @@ class StockTradingSimulator {
                     break;
 
                 case 6:
+                    System.out.print("Simulated paths: ");
+                    int paths = sc.nextInt();
+                    System.out.print("Horizon (trading days): ");
+                    int days = sc.nextInt();
+                    // no price history is kept here, so volatilities and correlation are entered
+                    Map<String, Double> vols = new HashMap<>();
+                    for (Map.Entry<String, Integer> h : new TreeMap<>(portfolio.getHoldings()).entrySet()) {
+                        if (h.getValue() == 0 || market.getStock(h.getKey()) == null) continue;
+                        System.out.print("Annualized volatility of " + h.getKey() + " (e.g. 0.25): ");
+                        vols.put(h.getKey(), sc.nextDouble());
+                    }
+                    if (vols.isEmpty() || paths <= 0 || days <= 0) {
+                        System.out.println("Nothing to simulate.");
+                        break;
+                    }
+                    System.out.print("Correlation between holdings, 0 <= c < 1 (e.g. 0.3): ");
+                    double correlation = sc.nextDouble();
+                    try {
+                        MonteCarloVaR risk = MonteCarloVaR.forPortfolio(portfolio, market, vols, Double.NaN,
+                                correlation, ForkJoinPool.commonPool());
+                        risk.run(paths, days, days, System.nanoTime(), 0.95, 0.99).print();
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("❌ " + e.getMessage());
+                    }
+                    break;
+
+                case 7:
                     System.out.println("Exiting... Goodbye!");
+                    ledger.close();
                     System.exit(0);
 
                 default:
@@ -0,0 +1,7 @@
+// Trading logic driven by a backtest: one instance per run, never shared between runs
+interface Strategy {
+    default void onStart(StrategyContext ctx) {
+    }
+
+    void onPrice(StrategyContext ctx, int symbolId, long epochNanos, double price);
+}
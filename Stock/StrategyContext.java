@@ -0,0 +1,56 @@
+// What a Strategy sees during one backtest run: the run's isolated portfolio and its private Stock copies
+class StrategyContext {
+    private final UserPortfolio portfolio;
+    private final Stock[] stocks;
+    private int trades;
+
+    StrategyContext(UserPortfolio portfolio, Stock[] stocks) {
+        this.portfolio = portfolio;
+        this.stocks = stocks;
+    }
+
+    int symbolCount() {
+        return stocks.length;
+    }
+
+    String symbol(int symbolId) {
+        return stocks[symbolId].getSymbol();
+    }
+
+    double price(int symbolId) {
+        return stocks[symbolId].getPrice();
+    }
+
+    int position(int symbolId) {
+        return portfolio.getHolding(stocks[symbolId].getSymbol());
+    }
+
+    double cash() {
+        return portfolio.getBalance();
+    }
+
+    boolean buy(int symbolId, int qty) {
+        boolean ok = qty > 0 && portfolio.buyStock(stocks[symbolId], qty);
+        if (ok) trades++;
+        return ok;
+    }
+
+    boolean sell(int symbolId, int qty) {
+        boolean ok = qty > 0 && portfolio.sellStock(stocks[symbolId], qty);
+        if (ok) trades++;
+        return ok;
+    }
+
+    int trades() {
+        return trades;
+    }
+
+    double equity() {
+        double value = portfolio.getBalance();
+        for (int i = 0; i < stocks.length; i++) {
+            int qty = portfolio.getHolding(stocks[i].getSymbol());
+            if (qty != 0) value += qty * stocks[i].getPrice();
+        }
+        return value;
+    }
+}
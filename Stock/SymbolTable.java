@@ -0,0 +1,98 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Interns ticker strings to dense int ids (0..size-1) so per-symbol state can live in arrays.
+// Lookups are lock-free and allocation-free: they hash and compare characters in place,
+// ASCII case-insensitively, straight from any CharSequence range (e.g. a parse buffer).
+// Interning is serialized; readers see a slot only after its symbol is fully published.
+class SymbolTable {
+    private static final int EMPTY = -1;
+
+    private volatile Table table = new Table(64);
+    private volatile String[] symbols = new String[64];
+    private volatile int size;
+
+    synchronized int intern(String symbol) {
+        int id = idOf(symbol);
+        if (id >= 0) return id;
+        id = size;
+        if (id == symbols.length) symbols = Arrays.copyOf(symbols, id * 2);
+        symbols[id] = symbol.toUpperCase(Locale.ROOT);
+        Table t = table;
+        if ((id + 1) * 2 > t.slots.length()) {
+            t = rehash(t.slots.length() * 2, id);
+            table = t;
+        }
+        t.insert(symbols, id);
+        size = id + 1;
+        return id;
+    }
+
+    // -1 if unknown
+    int idOf(CharSequence symbol) {
+        return idOf(symbol, 0, symbol.length());
+    }
+
+    int idOf(CharSequence s, int from, int to) {
+        Table t = table;
+        String[] names = symbols;
+        int mask = t.slots.length() - 1;
+        int i = hash(s, from, to) & mask;
+        while (true) {
+            int id = t.slots.get(i);
+            if (id == EMPTY) return -1;
+            if (id < names.length && equalsIgnoreCase(names[id], s, from, to)) return id;
+            i = (i + 1) & mask;
+        }
+    }
+
+    String symbol(int id) {
+        return symbols[id];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private Table rehash(int capacity, int count) {
+        Table t = new Table(capacity);
+        for (int id = 0; id < count; id++) t.insert(symbols, id);
+        return t;
+    }
+
+    static int hash(CharSequence s, int from, int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) h = 31 * h + upper(s.charAt(i));
+        h *= 0x9E3779B9; // spread near-identical tickers before masking
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean equalsIgnoreCase(String stored, CharSequence s, int from, int to) {
+        if (stored == null || stored.length() != to - from) return false;
+        for (int i = 0; i < stored.length(); i++) {
+            if (stored.charAt(i) != upper(s.charAt(from + i))) return false;
+        }
+        return true;
+    }
+
+    private static char upper(char c) {
+        return c >= 'a' && c <= 'z' ? (char) (c - 32) : c;
+    }
+
+    private static class Table {
+        final AtomicIntegerArray slots;
+
+        Table(int capacity) {
+            slots = new AtomicIntegerArray(capacity);
+            for (int i = 0; i < capacity; i++) slots.set(i, EMPTY);
+        }
+
+        void insert(String[] symbols, int id) {
+            String s = symbols[id];
+            int mask = slots.length() - 1;
+            int i = hash(s, 0, s.length()) & mask;
+            while (slots.get(i) != EMPTY) i = (i + 1) & mask;
+            slots.set(i, id); // volatile write publishes symbols[id]
+        }
+    }
+}
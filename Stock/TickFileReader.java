@@ -0,0 +1,72 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+// Memory-mapped reader for files written by TickFileWriter.
+// Records are read with absolute gets straight from the mapping; nothing is allocated per tick.
+// Files larger than 2GB are mapped in record-aligned segments.
+class TickFileReader implements Closeable {
+    private static final long SEGMENT_RECORDS = Integer.MAX_VALUE / TickFileWriter.RECORD_SIZE;
+
+    private final FileChannel channel;
+    private final long recordCount;
+    private final String[] symbols;
+
+    TickFileReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, TickFileWriter.HEADER_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getInt(0) != TickFileWriter.MAGIC) {
+            channel.close();
+            throw new IOException("Not a tick file: " + file);
+        }
+        if (header.getInt(4) != TickFileWriter.VERSION) {
+            channel.close();
+            throw new IOException("Unsupported tick file version " + header.getInt(4));
+        }
+        recordCount = header.getLong(8);
+        long tableOffset = header.getLong(16);
+
+        ByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, tableOffset, channel.size() - tableOffset)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        symbols = new String[table.getInt()];
+        for (int i = 0; i < symbols.length; i++) {
+            byte[] b = new byte[table.getShort() & 0xFFFF];
+            table.get(b);
+            symbols[i] = new String(b, StandardCharsets.UTF_8);
+        }
+    }
+
+    long recordCount() {
+        return recordCount;
+    }
+
+    int symbolCount() {
+        return symbols.length;
+    }
+
+    String symbol(int id) {
+        return symbols[id];
+    }
+
+    // Streams every record in file order
+    void forEach(TickListener listener) throws IOException {
+        for (long first = 0; first < recordCount; first += SEGMENT_RECORDS) {
+            int n = (int) Math.min(SEGMENT_RECORDS, recordCount - first);
+            MappedByteBuffer seg = channel.map(FileChannel.MapMode.READ_ONLY,
+                    TickFileWriter.HEADER_SIZE + first * TickFileWriter.RECORD_SIZE,
+                    (long) n * TickFileWriter.RECORD_SIZE);
+            seg.order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0, off = 0; i < n; i++, off += TickFileWriter.RECORD_SIZE) {
+                listener.onTick(seg.getInt(off), seg.getLong(off + 4), seg.getLong(off + 12), seg.getLong(off + 20));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,110 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.*;
+
+// Writes the binary tick format read by TickFileReader:
+//   header  : magic(int) version(int) recordCount(long) symbolTableOffset(long)
+//   records : symbolId(int) epochNanos(long) priceTicks(long) volume(long), little-endian, fixed size
+//   footer  : symbolCount(int) then per symbol: length(short) + UTF-8 bytes
+class TickFileWriter implements Closeable {
+    static final int MAGIC = 0x5449434B; // "TICK"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 24;
+    static final int RECORD_SIZE = 4 + 8 + 8 + 8;
+
+    private final FileChannel channel;
+    private final ByteBuffer buf = ByteBuffer.allocateDirect(RECORD_SIZE * 4096).order(ByteOrder.LITTLE_ENDIAN);
+    private final HashMap<String, Integer> symbolIds = new HashMap<>();
+    private final ArrayList<String> symbols = new ArrayList<>();
+    private long recordCount;
+
+    TickFileWriter(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        channel.position(HEADER_SIZE);
+    }
+
+    int symbolId(String symbol) {
+        Integer id = symbolIds.get(symbol);
+        if (id == null) {
+            id = symbols.size();
+            symbols.add(symbol);
+            symbolIds.put(symbol, id);
+        }
+        return id;
+    }
+
+    void write(String symbol, long epochNanos, long priceTicks, long volume) throws IOException {
+        write(symbolId(symbol), epochNanos, priceTicks, volume);
+    }
+
+    void write(int symbolId, long epochNanos, long priceTicks, long volume) throws IOException {
+        if (buf.remaining() < RECORD_SIZE) flush();
+        buf.putInt(symbolId).putLong(epochNanos).putLong(priceTicks).putLong(volume);
+        recordCount++;
+    }
+
+    private void flush() throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) channel.write(buf);
+        buf.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            long tableOffset = channel.position();
+            ByteArrayOutputStream table = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(table);
+            out.writeInt(Integer.reverseBytes(symbols.size()));
+            for (String s : symbols) {
+                byte[] b = s.getBytes(StandardCharsets.UTF_8);
+                out.writeShort(Short.reverseBytes((short) b.length));
+                out.write(b);
+            }
+            channel.write(ByteBuffer.wrap(table.toByteArray()));
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(recordCount).putLong(tableOffset).flip();
+            channel.write(header, 0);
+        } finally {
+            channel.close();
+        }
+    }
+
+    // CSV rows: symbol,timestamp,price,volume where timestamp is epoch nanos or an ISO-8601 instant.
+    // A header row (non-numeric price) is skipped. Returns the number of ticks written.
+    static long convertCsv(Path csv, Path out) throws IOException {
+        long rows = 0;
+        try (BufferedReader in = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+             TickFileWriter w = new TickFileWriter(out)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.trim().isEmpty()) continue;
+                String[] p = line.split(",", -1);
+                if (p.length < 4) continue;
+                double price;
+                try {
+                    price = Double.parseDouble(p[2].trim());
+                } catch (NumberFormatException e) {
+                    continue; // header
+                }
+                w.write(p[0].trim().toUpperCase(), parseTimestamp(p[1].trim()), StockMarket.toTicks(price),
+                        Long.parseLong(p[3].trim()));
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static long parseTimestamp(String s) {
+        if (!s.isEmpty() && Character.isDigit(s.charAt(0)) && s.indexOf('-') < 0) return Long.parseLong(s);
+        Instant t = Instant.parse(s);
+        return t.getEpochSecond() * 1_000_000_000L + t.getNano();
+    }
+}
@@ -0,0 +1,3 @@
+interface TickListener {
+    void onTick(int symbolId, long epochNanos, long priceTicks, long volume);
+}
@@ -0,0 +1,62 @@
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+// Replays a tick file into StockMarket prices, either as fast as possible (speed <= 0)
+// or paced to the recorded timestamps scaled by speed (1.0 = wall clock, 60.0 = a minute per second).
+class TickReplayer {
+    private final StockMarket market;
+    private final double speed;
+    private TickListener downstream;
+    private volatile boolean stopped;
+
+    TickReplayer(StockMarket market, double speed) {
+        this.market = market;
+        this.speed = speed;
+    }
+
+    // optional hook (strategies, bar builders) called after each tick is applied
+    void setDownstream(TickListener downstream) {
+        this.downstream = downstream;
+    }
+
+    void stop() {
+        stopped = true;
+    }
+
+    long replay(TickFileReader reader) throws IOException {
+        Stock[] bySymbolId = new Stock[reader.symbolCount()];
+        for (int i = 0; i < bySymbolId.length; i++) {
+            String symbol = reader.symbol(i);
+            if (market.getStock(symbol) == null) market.listStock(symbol, 0);
+            bySymbolId[i] = market.getStock(symbol);
+        }
+
+        long[] count = {0};
+        long[] firstTickNanos = {Long.MIN_VALUE};
+        long startWall = System.nanoTime();
+        TickListener downstream = this.downstream;
+        try {
+            reader.forEach((symbolId, epochNanos, priceTicks, volume) -> {
+                if (stopped) throw new ReplayStopped();
+                if (speed > 0) {
+                    if (firstTickNanos[0] == Long.MIN_VALUE) firstTickNanos[0] = epochNanos;
+                    long due = startWall + (long) ((epochNanos - firstTickNanos[0]) / speed);
+                    long wait;
+                    while ((wait = due - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+                }
+                bySymbolId[symbolId].setPrice(StockMarket.fromTicks(priceTicks));
+                if (downstream != null) downstream.onTick(symbolId, epochNanos, priceTicks, volume);
+                count[0]++;
+            });
+        } catch (ReplayStopped e) {
+            // stop() requested
+        }
+        return count[0];
+    }
+
+    private static class ReplayStopped extends RuntimeException {
+        ReplayStopped() {
+            super(null, null, false, false);
+        }
+    }
+}
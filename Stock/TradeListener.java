@@ -0,0 +1,11 @@
+interface TradeListener {
+    void onTrade(String symbol, long buyOrderId, long sellOrderId, long priceTicks, int quantity);
+
+    default void onOrderDone(Order order) {
+    }
+
+    // order refused without touching the book; nothing rests and nothing fills
+    default void onOrderRejected(Order order, String reason) {
+        onOrderDone(order);
+    }
+}
@@ -0,0 +1,161 @@
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+// Microbenchmarks and a multi-threaded load generator for the simulator.
+// Each benchmark warms up, then reports ns/op and bytes allocated per op (from the
+// JVM's per-thread allocation counter). The load test replays synthetic order flow
+// from several threads and reports throughput and latency percentiles.
+//
+//   java TradingBenchmark            -> micro + load
+//   java TradingBenchmark micro|load
+class TradingBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURE_ROUNDS = 5;
+    private static final PrintStream NULL_OUT = new PrintStream(OutputStream.nullOutputStream());
+    static volatile long sink; // keeps results alive so the JIT can't drop the work
+
+    interface Op {
+        void run(int i);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "all";
+        if (!mode.equals("load")) micro();
+        if (!mode.equals("micro")) load(Runtime.getRuntime().availableProcessors(), 2_000_000);
+    }
+
+    static void micro() {
+        System.out.println("--- Microbenchmarks (ns/op, bytes/op) ---");
+        for (int holdings : new int[]{4, 1_000, 10_000}) {
+            StockMarket market = marketWith(holdings);
+            Stock[] stocks = new Stock[holdings];
+            for (int i = 0; i < holdings; i++) stocks[i] = market.getStock(i);
+
+            UserPortfolio p = seeded(stocks);
+            bench("buyStock          holdings=" + holdings, 200_000, i -> sink += p.buyStock(stocks[i % holdings], 1) ? 1 : 0);
+            bench("sellStock         holdings=" + holdings, 200_000, i -> sink += p.sellStock(stocks[i % holdings], 1) ? 1 : 0);
+            bench("buy+sell roundtrip holdings=" + holdings, 100_000, i -> {
+                Stock s = stocks[i % holdings];
+                p.buyStock(s, 1);
+                p.sellStock(s, 1);
+            });
+            bench("Transaction append", 500_000, new Op() {
+                final ArrayList<Transaction> history = new ArrayList<>();
+
+                public void run(int i) {
+                    history.add(new Transaction("AAPL", 1, 150.0, "BUY"));
+                    if (history.size() > 1_000_000) history.clear();
+                }
+            });
+            int displays = Math.max(10, 200_000 / holdings);
+            bench("displayPortfolio  holdings=" + holdings, displays, i -> {
+                PrintStream out = System.out;
+                System.setOut(NULL_OUT);
+                try {
+                    p.displayPortfolio(market);
+                } finally {
+                    System.setOut(out);
+                }
+            });
+        }
+    }
+
+    // ns/op and allocated bytes/op over the measured rounds
+    static void bench(String name, int opsPerRound, Op op) {
+        for (int r = 0; r < WARMUP_ROUNDS; r++) {
+            for (int i = 0; i < opsPerRound; i++) op.run(i);
+        }
+        long bytes0 = allocatedBytes();
+        long t0 = System.nanoTime();
+        for (int r = 0; r < MEASURE_ROUNDS; r++) {
+            for (int i = 0; i < opsPerRound; i++) op.run(i);
+        }
+        long elapsed = System.nanoTime() - t0;
+        long bytes = allocatedBytes() - bytes0;
+        double ops = (double) opsPerRound * MEASURE_ROUNDS;
+        System.out.printf("%-40s %12.1f ns/op %10.1f B/op%n", name, elapsed / ops, bytes / ops);
+    }
+
+    // Each worker drives its own portfolio against the shared market and matching engines
+    static void load(int threads, int opsPerThread) throws Exception {
+        System.out.println("\n--- Load test: " + threads + " threads x " + opsPerThread + " orders ---");
+        StockMarket market = marketWith(64);
+        LongAdder fills = new LongAdder();
+        market.startMatching(new TradeListener() {
+            public void onTrade(String symbol, long buyId, long sellId, long priceTicks, int qty) {
+                fills.increment();
+            }
+        }, 1 << 16);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<LatencyHistogram>> results = new ArrayList<>();
+        LongAdder bytes = new LongAdder();
+        long t0 = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            final long seed = t;
+            results.add(pool.submit(() -> worker(market, opsPerThread, seed, bytes)));
+        }
+        LatencyHistogram all = new LatencyHistogram();
+        for (Future<LatencyHistogram> f : results) all.merge(f.get());
+        long elapsed = System.nanoTime() - t0;
+        pool.shutdown();
+        market.stopMatching();
+
+        System.out.printf("throughput: %.0f ops/s | fills: %d | alloc: %.1f B/op%n",
+                all.count() * 1e9 / elapsed, fills.sum(), (double) bytes.sum() / all.count());
+        System.out.println("latency:    " + all.summary());
+    }
+
+    // allocation is counted on the worker thread only (matching threads are excluded)
+    private static LatencyHistogram worker(StockMarket market, int ops, long seed, LongAdder bytes) {
+        long bytes0 = allocatedBytes();
+        SplittableRandom rnd = new SplittableRandom(seed);
+        UserPortfolio portfolio = new UserPortfolio(1e12);
+        portfolio.setVerbose(false);
+        LatencyHistogram h = new LatencyHistogram();
+        int symbols = market.size();
+        for (int i = 0; i < ops; i++) {
+            Stock s = market.getStock(rnd.nextInt(symbols));
+            int kind = rnd.nextInt(10);
+            long start = System.nanoTime();
+            if (kind < 3) {
+                portfolio.buyStock(s, 1 + rnd.nextInt(10));
+            } else if (kind < 5) {
+                portfolio.sellStock(s, 1 + rnd.nextInt(10));
+            } else {
+                long ref = StockMarket.toTicks(s.getPrice());
+                Order.Side side = rnd.nextBoolean() ? Order.Side.BUY : Order.Side.SELL;
+                market.submitOrder(Order.limit(market.nextOrderId(), s.getSymbol(), side,
+                        ref - 20 + rnd.nextInt(40), 1 + rnd.nextInt(100)));
+            }
+            h.record(System.nanoTime() - start);
+        }
+        bytes.add(allocatedBytes() - bytes0);
+        return h;
+    }
+
+    private static StockMarket marketWith(int symbols) {
+        StockMarket market = new StockMarket();
+        for (int i = market.size(); i < symbols; i++) market.listStock("SYM" + i, 10 + i % 500);
+        return market;
+    }
+
+    // portfolio already holding 10 shares of every stock
+    private static UserPortfolio seeded(Stock[] stocks) {
+        UserPortfolio p = new UserPortfolio(1e12);
+        p.setVerbose(false);
+        for (Stock s : stocks) p.buyStock(s, 10);
+        return p;
+    }
+
+    private static long allocatedBytes() {
+        return threadBean().getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        return (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+}
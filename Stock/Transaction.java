@@ -3,12 +3,38 @@ class Transaction {
     private int quantity;
     private double price;
     private String type; // BUY or SELL
+    private long timestamp; // epoch millis
 
     public Transaction(String stockSymbol, int quantity, double price, String type) {
+        this(stockSymbol, quantity, price, type, System.currentTimeMillis());
+    }
+
+    public Transaction(String stockSymbol, int quantity, double price, String type, long timestamp) {
         this.stockSymbol = stockSymbol;
         this.quantity = quantity;
         this.price = price;
         this.type = type;
+        this.timestamp = timestamp;
+    }
+
+    public String getStockSymbol() {
+        return stockSymbol;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
     }
 
     @Override
@@ -0,0 +1,422 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Append-only on-disk transaction log for a portfolio.
+//  - segments  : segment-<firstSeq>.log, records framed as length(int) crc32(int) body
+//  - snapshot  : holdings + balance as of some sequence, replaced atomically every snapshotInterval records
+//  - group commit: appends are queued and a single writer thread writes and fsyncs them in batches
+// Recovery loads the snapshot and replays only the segments after it; a torn tail record is truncated.
+// History is never held in memory; scans stream it back from the segment files. Segments that lie
+// wholly before the snapshot and before a retention cutoff can be deleted by compact().
+// A failed write is cut back out of the segment and leaves the ledger failed: every later append
+// and sync is refused, since callers' in-memory state no longer matches what is on disk.
+class TransactionLedger implements Closeable {
+    private static final int SNAPSHOT_MAGIC = 0x534E4150; // "SNAP"
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final int MAX_BATCH = 4096;
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final int snapshotInterval;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed;
+    private volatile IOException failure;
+    private volatile long retentionMillis; // 0 = keep all history
+
+    // state below is owned by the writer thread after open()
+    private final HashMap<String, Integer> holdings = new HashMap<>();
+    private double balance;
+    private long lastSeq;
+    private volatile long snapshotSeq;
+    private FileChannel segment;
+    private long segmentEnd; // end of the last durable batch in 'segment'
+    private long nextSeq; // guarded by this (append)
+
+    private TransactionLedger(Path dir, long segmentBytes, int snapshotInterval) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.snapshotInterval = snapshotInterval;
+        this.writer = new Thread(this::writeLoop, "ledger-writer");
+        this.writer.setDaemon(true);
+    }
+
+    static TransactionLedger open(Path dir, double startingBalance) throws IOException {
+        return open(dir, startingBalance, 64L << 20, 10_000);
+    }
+
+    static TransactionLedger open(Path dir, double startingBalance, long segmentBytes, int snapshotInterval) throws IOException {
+        Files.createDirectories(dir);
+        TransactionLedger ledger = new TransactionLedger(dir, segmentBytes, snapshotInterval);
+        ledger.recover(startingBalance);
+        ledger.nextSeq = ledger.lastSeq + 1;
+        ledger.writer.start();
+        return ledger;
+    }
+
+    // recovered state; read once before trading resumes
+    synchronized Map<String, Integer> recoveredHoldings() {
+        return new HashMap<>(holdings);
+    }
+
+    synchronized double recoveredBalance() {
+        return balance;
+    }
+
+    // The write error that failed the ledger, or null while it is healthy
+    IOException failure() {
+        return failure;
+    }
+
+    // After each snapshot, delete history older than this many millis (0 keeps everything)
+    void setRetention(long millis) {
+        this.retentionMillis = millis;
+    }
+
+    // Queues the record; the future completes once it is on disk, or exceptionally if the write fails
+    synchronized CompletableFuture<Void> append(Transaction t) {
+        if (closed) throw new IllegalStateException("ledger closed");
+        if (failure != null) throw new IllegalStateException("ledger failed: " + failure.getMessage(), failure);
+        Pending p = new Pending(nextSeq++, t);
+        queue.add(p);
+        return p.done;
+    }
+
+    // Waits until everything appended so far is durable
+    void sync() throws IOException {
+        CompletableFuture<Void> last;
+        synchronized (this) {
+            if (failure != null) throw failure;
+            Pending p = new Pending(-1, null);
+            queue.add(p);
+            last = p.done;
+        }
+        try {
+            last.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+    }
+
+    // Deletes sealed segments whose records are all covered by the snapshot and older than
+    // beforeMillis. Scans no longer see that history. Returns the number of segments removed.
+    int compact(long beforeMillis) throws IOException {
+        List<Path> segments = listSegments();
+        long covered = snapshotSeq;
+        int removed = 0;
+        // the last segment is the one being written; a segment ends where its successor starts
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            Path next = segments.get(i + 1);
+            if (firstSeq(next) - 1 > covered) break;
+            long nextStart = firstTimestamp(next);
+            if (nextStart == Long.MIN_VALUE || nextStart >= beforeMillis) break;
+            if (Files.deleteIfExists(segments.get(i))) removed++;
+        }
+        return removed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+        }
+        queue.add(Pending.POISON);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Streams matching records in order. symbol == null matches all; time bounds are epoch millis, inclusive.
+    void scan(String symbol, long fromMillis, long toMillis, Consumer<Transaction> out) throws IOException {
+        List<Path> segments = listSegments();
+        for (int i = 0; i < segments.size(); i++) {
+            // segments are time-ordered: skip one whose successor already starts before the window
+            if (i + 1 < segments.size()) {
+                long nextStart = firstTimestamp(segments.get(i + 1));
+                if (nextStart != Long.MIN_VALUE && nextStart < fromMillis) continue;
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segments.get(i)), 1 << 16))) {
+                Record r = new Record();
+                while (readRecord(in, r)) {
+                    if (r.timestamp > toMillis) return;
+                    if (r.timestamp < fromMillis) continue;
+                    if (symbol != null && !symbol.equals(r.symbol)) continue;
+                    out.accept(new Transaction(r.symbol, r.quantity, r.price, r.type, r.timestamp));
+                }
+            }
+        }
+    }
+
+    // ---- writer thread ----
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(MAX_BATCH);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+        boolean stop = false;
+        while (!stop) {
+            batch.clear();
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            for (Pending p : batch) {
+                if (p == Pending.POISON) stop = true;
+            }
+            if (failure != null) {
+                for (Pending p : batch) p.done.completeExceptionally(failure);
+                continue;
+            }
+            bytes.reset();
+            try {
+                long firstSeq = -1;
+                for (Pending p : batch) {
+                    if (p.txn != null) {
+                        if (firstSeq < 0) firstSeq = p.seq;
+                        encode(p.seq, p.txn, bytes);
+                    }
+                }
+                if (bytes.size() > 0) {
+                    if (segment == null || segmentEnd >= segmentBytes) rollSegment(firstSeq);
+                    ByteBuffer buf = ByteBuffer.wrap(bytes.toByteArray());
+                    while (buf.hasRemaining()) segment.write(buf);
+                    segment.force(false);
+                    segmentEnd += bytes.size();
+                }
+            } catch (IOException e) {
+                fail(e);
+                for (Pending p : batch) p.done.completeExceptionally(e);
+                continue;
+            }
+            for (Pending p : batch) {
+                if (p.txn != null) apply(p.seq, p.txn);
+            }
+            for (Pending p : batch) p.done.complete(null);
+            if (lastSeq - snapshotSeq >= snapshotInterval) snapshotAndCompact();
+        }
+        try {
+            if (failure == null && lastSeq > snapshotSeq) writeSnapshot();
+            if (segment != null) segment.close();
+        } catch (IOException e) {
+            System.out.println("Failed to close ledger: " + e.getMessage());
+        }
+    }
+
+    // Cuts the partial batch back out so later records are not stranded behind garbage on recovery.
+    // If even that fails the segment is abandoned; recovery reads each segment up to its first bad record.
+    private void fail(IOException e) {
+        failure = e;
+        System.out.println("❌ Ledger write failed, no further trades will be recorded: " + e.getMessage());
+        if (segment == null) return;
+        try {
+            segment.truncate(segmentEnd);
+            segment.force(false);
+        } catch (IOException te) {
+            try {
+                segment.close();
+            } catch (IOException ignored) {
+            }
+            segment = null;
+        }
+    }
+
+    // the records are already durable, so a failed snapshot only delays the next one
+    private void snapshotAndCompact() {
+        try {
+            writeSnapshot();
+            long retention = retentionMillis;
+            if (retention > 0) compact(System.currentTimeMillis() - retention);
+        } catch (IOException e) {
+            System.out.println("Ledger snapshot failed: " + e.getMessage());
+        }
+    }
+
+    private void apply(long seq, Transaction t) {
+        int delta = "BUY".equals(t.getType()) ? t.getQuantity() : -t.getQuantity();
+        synchronized (this) {
+            holdings.merge(t.getStockSymbol(), delta, Integer::sum);
+            balance -= delta * t.getPrice();
+            lastSeq = seq;
+        }
+    }
+
+    private void rollSegment(long firstSeq) throws IOException {
+        if (segment != null) segment.close();
+        segment = FileChannel.open(dir.resolve(String.format("segment-%020d.log", firstSeq)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentEnd = segment.size();
+    }
+
+    private void writeSnapshot() throws IOException {
+        long seq;
+        double bal;
+        Map<String, Integer> copy;
+        synchronized (this) {
+            seq = lastSeq;
+            bal = balance;
+            copy = new HashMap<>(holdings);
+        }
+        Path tmp = dir.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tmp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(seq);
+            out.writeDouble(bal);
+            out.writeInt(copy.size());
+            for (Map.Entry<String, Integer> e : copy.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeInt(e.getValue());
+            }
+            out.flush();
+            fos.getFD().sync();
+        }
+        Files.move(tmp, dir.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        snapshotSeq = seq;
+    }
+
+    // ---- recovery ----
+
+    private void recover(double startingBalance) throws IOException {
+        balance = startingBalance;
+        Path snap = dir.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snap)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snap)))) {
+                if (in.readInt() != SNAPSHOT_MAGIC) throw new IOException("Corrupt ledger snapshot: " + snap);
+                snapshotSeq = in.readLong();
+                balance = in.readDouble();
+                int n = in.readInt();
+                for (int i = 0; i < n; i++) holdings.put(in.readUTF(), in.readInt());
+            }
+        }
+        lastSeq = snapshotSeq;
+
+        List<Path> segments = listSegments();
+        for (int i = 0; i < segments.size(); i++) {
+            // a segment can be skipped entirely if the next one starts at or before the snapshot
+            if (i + 1 < segments.size() && firstSeq(segments.get(i + 1)) <= snapshotSeq + 1) continue;
+            replaySegment(segments.get(i), i == segments.size() - 1);
+        }
+    }
+
+    private void replaySegment(Path file, boolean last) throws IOException {
+        long good = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            Record r = new Record();
+            while (readRecord(in, r)) {
+                good += r.frameBytes;
+                if (r.seq <= lastSeq) continue;
+                apply(r.seq, new Transaction(r.symbol, r.quantity, r.price, r.type, r.timestamp));
+            }
+        }
+        if (last && good < Files.size(file)) {
+            // torn write from a crash: drop the partial record
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                ch.truncate(good);
+            }
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> out = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "segment-*.log")) {
+            for (Path p : ds) out.add(p);
+        }
+        out.sort(Comparator.comparingLong(TransactionLedger::firstSeq));
+        return out;
+    }
+
+    private static long firstSeq(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring("segment-".length(), name.length() - ".log".length()));
+    }
+
+    private static long firstTimestamp(Path segment) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment), 256))) {
+            Record r = new Record();
+            return readRecord(in, r) ? r.timestamp : Long.MIN_VALUE;
+        }
+    }
+
+    // ---- record codec ----
+
+    private static void encode(long seq, Transaction t, ByteArrayOutputStream out) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(48);
+        DataOutputStream d = new DataOutputStream(body);
+        d.writeLong(seq);
+        d.writeLong(t.getTimestamp());
+        d.writeByte("BUY".equals(t.getType()) ? 'B' : 'S');
+        d.writeInt(t.getQuantity());
+        d.writeDouble(t.getPrice());
+        byte[] sym = t.getStockSymbol().getBytes(StandardCharsets.UTF_8);
+        d.writeShort(sym.length);
+        d.write(sym);
+        byte[] b = body.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(b);
+        DataOutputStream o = new DataOutputStream(out);
+        o.writeInt(b.length);
+        o.writeInt((int) crc.getValue());
+        o.write(b);
+    }
+
+    // false at end of segment or at a torn/corrupt record
+    private static boolean readRecord(DataInputStream in, Record r) throws IOException {
+        try {
+            int len = in.readInt();
+            int crc = in.readInt();
+            if (len <= 0 || len > 1 << 16) return false;
+            byte[] b = new byte[len];
+            in.readFully(b);
+            CRC32 c = new CRC32();
+            c.update(b);
+            if ((int) c.getValue() != crc) return false;
+            DataInputStream d = new DataInputStream(new ByteArrayInputStream(b));
+            r.seq = d.readLong();
+            r.timestamp = d.readLong();
+            r.type = d.readByte() == 'B' ? "BUY" : "SELL";
+            r.quantity = d.readInt();
+            r.price = d.readDouble();
+            byte[] sym = new byte[d.readShort()];
+            d.readFully(sym);
+            r.symbol = new String(sym, StandardCharsets.UTF_8);
+            r.frameBytes = 8 + len;
+            return true;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    private static class Record {
+        long seq;
+        long timestamp;
+        String type;
+        int quantity;
+        double price;
+        String symbol;
+        int frameBytes;
+    }
+
+    private static class Pending {
+        static final Pending POISON = new Pending(-1, null);
+
+        final long seq;
+        final Transaction txn; // null for sync markers
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Pending(long seq, Transaction txn) {
+            this.seq = seq;
+            this.txn = txn;
+        }
+    }
+}
@@ -1,46 +1,140 @@
+import java.io.IOException;
 import java.util.*;
 class UserPortfolio {
     private HashMap<String, Integer> holdings = new HashMap<>();
     private ArrayList<Transaction> history = new ArrayList<>();
     private double balance = 10000.0; // starting balance
+    private TransactionLedger ledger; // when set, history lives on disk instead of in 'history'
+    private boolean verbose = true;   // console messages per trade; off for headless runs
+    private PnlTracker pnl;           // optional incremental P&L, fed on every fill
+    private PreTradeRisk risk;        // optional pre-trade checks (this portfolio is account 0)
+    private StockMarket riskMarket;   // reference prices for the risk gate's price band
+    private String rejectReason;      // why the last buyStock/sellStock returned false
+    private double lastFillPrice = Double.NaN; // price the last successful buyStock/sellStock traded at
+
+    public UserPortfolio() {
+    }
+
+    public UserPortfolio(double startingBalance) {
+        this.balance = startingBalance;
+    }
+
+    // Resumes the holdings and balance recorded in the ledger
+    public UserPortfolio(TransactionLedger ledger) {
+        this.ledger = ledger;
+        this.holdings.putAll(ledger.recoveredHoldings());
+        this.balance = ledger.recoveredBalance();
+    }
 
     public double getBalance() {
         return balance;
     }
 
-    public void buyStock(Stock stock, int qty) {
-        double cost = stock.getPrice() * qty;
-        if (cost > balance) {
-            System.out.println("❌ Not enough balance!");
-            return;
+    public int getHolding(String symbol) {
+        return holdings.getOrDefault(symbol, 0);
+    }
+
+    public Map<String, Integer> getHoldings() {
+        return Collections.unmodifiableMap(new HashMap<>(holdings));
+    }
+
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    // Attaches a fresh tracker; shares already held (e.g. recovered from a ledger) are entered at the
+    // market's current price, so P&L is measured from the moment of attaching
+    public void setPnlTracker(PnlTracker pnl, StockMarket market) {
+        this.pnl = pnl;
+        if (pnl == null) return;
+        for (Map.Entry<String, Integer> e : holdings.entrySet()) {
+            Stock stock = market.getStock(e.getKey());
+            long missing = e.getValue() - pnl.quantity(e.getKey());
+            if (stock != null && missing > 0) pnl.onFill(e.getKey(), true, missing, stock.getPrice());
         }
+    }
+
+    public PnlTracker getPnlTracker() {
+        return pnl;
+    }
+
+    public String lastRejectReason() {
+        return rejectReason;
+    }
+
+    public double lastFillPrice() {
+        return lastFillPrice;
+    }
+
+    public void setPreTradeRisk(PreTradeRisk risk, StockMarket market) {
+        this.risk = risk;
+        this.riskMarket = market;
+    }
+
+    // The price is read once per trade: with a live feed each getPrice() may differ, and the
+    // balance, the ledger record and the P&L fill must all agree on what was paid.
+    public boolean buyStock(Stock stock, int qty) {
+        double price = stock.getPrice();
+        double cost = price * qty;
+        if (cost > balance) return reject("not enough balance", "❌ Not enough balance!");
+        if (!passesRisk(stock, price, true, qty) || !ledgerWritable()) return false;
         balance -= cost;
 
         holdings.put(stock.getSymbol(), holdings.getOrDefault(stock.getSymbol(), 0) + qty);
-        history.add(new Transaction(stock.getSymbol(), qty, stock.getPrice(), "BUY"));
-        System.out.println("✔ Bought " + qty + " shares of " + stock.getSymbol());
+        record(new Transaction(stock.getSymbol(), qty, price, "BUY"));
+        if (pnl != null) pnl.onFill(stock.getSymbol(), true, qty, price);
+        filled(price);
+        if (verbose) System.out.println("✔ Bought " + qty + " shares of " + stock.getSymbol());
+        return true;
     }
 
-    public void sellStock(Stock stock, int qty) {
+    public boolean sellStock(Stock stock, int qty) {
         if (!holdings.containsKey(stock.getSymbol()) || holdings.get(stock.getSymbol()) < qty) {
-            System.out.println("❌ Not enough shares!");
-            return;
+            return reject("not enough shares", "❌ Not enough shares!");
         }
-        double revenue = stock.getPrice() * qty;
+        double price = stock.getPrice();
+        if (!passesRisk(stock, price, false, qty) || !ledgerWritable()) return false;
+        if (pnl != null && pnl.quantity(stock.getSymbol()) < qty) {
+            return reject("P&L tracker does not hold these shares", "❌ P&L tracker does not hold these shares; sell refused");
+        }
+        double revenue = price * qty;
         balance += revenue;
 
         holdings.put(stock.getSymbol(), holdings.get(stock.getSymbol()) - qty);
-        history.add(new Transaction(stock.getSymbol(), qty, stock.getPrice(), "SELL"));
-        System.out.println("✔ Sold " + qty + " shares of " + stock.getSymbol());
+        record(new Transaction(stock.getSymbol(), qty, price, "SELL"));
+        if (pnl != null) pnl.onFill(stock.getSymbol(), false, qty, price);
+        filled(price);
+        if (verbose) System.out.println("✔ Sold " + qty + " shares of " + stock.getSymbol());
+        return true;
     }
 
     public void displayPortfolio(StockMarket market) {
         System.out.println("\n--- Portfolio Summary ---");
         double totalValue = balance;
 
+        // with a live feed, value every holding from the same tick round
+        PriceBoard board = market.getPriceBoard();
+        double[] snapshot = null;
+        if (board != null) {
+            snapshot = new double[board.size()];
+            board.snapshot(snapshot);
+        }
+
         for (String symbol : holdings.keySet()) {
             int qty = holdings.get(symbol);
-            double price = market.getStock(symbol).getPrice();
+            int id = board == null ? -1 : board.idOf(symbol);
+            Stock stock = market.getStock(symbol);
+            double price;
+            if (id >= 0) {
+                price = snapshot[id];
+            } else if (stock != null) {
+                price = stock.getPrice();
+            } else if (pnl != null && !Double.isNaN(pnl.lastPrice(symbol))) {
+                price = pnl.lastPrice(symbol); // delisted: fall back to the last price we saw
+            } else {
+                System.out.println(symbol + " | Qty: " + qty + " | Price: n/a (no longer listed)");
+                continue;
+            }
             double value = qty * price;
 
             System.out.println(symbol + " | Qty: " + qty + " | Price: $" + price + " | Value: $" + value);
@@ -49,12 +143,64 @@ class UserPortfolio {
 
         System.out.println("Cash Balance: $" + balance);
         System.out.println("Total Portfolio Value: $" + totalValue);
+        if (pnl != null) {
+            System.out.printf("Realized P&L: $%.2f | Unrealized P&L: $%.2f%n", pnl.realized(), pnl.unrealized());
+        }
     }
 
     public void displayTransactions() {
+        displayTransactions(null, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    // symbol == null shows every symbol; bounds are epoch millis, inclusive
+    public void displayTransactions(String symbol, long fromMillis, long toMillis) {
         System.out.println("\n--- Transaction History ---");
+        if (ledger != null) {
+            try {
+                ledger.sync();
+                ledger.scan(symbol, fromMillis, toMillis, System.out::println);
+            } catch (IOException e) {
+                System.out.println("❌ Could not read transaction ledger: " + e.getMessage());
+            }
+            return;
+        }
         for (Transaction t : history) {
+            if (symbol != null && !symbol.equals(t.getStockSymbol())) continue;
+            if (t.getTimestamp() < fromMillis || t.getTimestamp() > toMillis) continue;
             System.out.println(t);
         }
     }
+
+    private boolean passesRisk(Stock stock, double price, boolean buy, int qty) {
+        if (risk == null) return true;
+        long ref = riskMarket == null ? 0 : riskMarket.referencePriceTicks(stock.getSymbol());
+        int flags = risk.check(0, stock.getSymbol(), buy, qty, StockMarket.toTicks(price), ref, getHolding(stock.getSymbol()));
+        if (flags == PreTradeRisk.OK) return true;
+        String reason = "rejected by risk check: " + PreTradeRisk.describe(flags);
+        return reject(reason, "❌ Rejected by risk check: " + PreTradeRisk.describe(flags));
+    }
+
+    // once a ledger write has failed, trading stops rather than drifting further from disk
+    private boolean ledgerWritable() {
+        if (ledger == null || ledger.failure() == null) return true;
+        String cause = ledger.failure().getMessage();
+        return reject("transaction ledger failed: " + cause, "❌ Trade refused: transaction ledger failed (" + cause + ")");
+    }
+
+    private boolean reject(String reason, String message) {
+        rejectReason = reason;
+        lastFillPrice = Double.NaN;
+        if (verbose) System.out.println(message);
+        return false;
+    }
+
+    private void filled(double price) {
+        rejectReason = null;
+        lastFillPrice = price;
+    }
+
+    private void record(Transaction t) {
+        if (ledger != null) ledger.append(t); // group-committed by the ledger's writer thread
+        else history.add(t);
+    }
 }
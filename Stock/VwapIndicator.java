@@ -0,0 +1,24 @@
+// Volume-weighted average of bar typical prices, cumulative since creation or the last reset
+class VwapIndicator implements Indicator {
+    private double priceVolume;
+    private long volume;
+
+    public String name() {
+        return "VWAP";
+    }
+
+    public void onBar(double close, double typicalPrice, long barVolume) {
+        priceVolume += typicalPrice * barVolume;
+        volume += barVolume;
+    }
+
+    public double value() {
+        return volume == 0 ? Double.NaN : priceVolume / volume;
+    }
+
+    // e.g. at the start of each trading session
+    void reset() {
+        priceVolume = 0;
+        volume = 0;
+    }
+}